@@ -123,4 +123,11 @@ public class DemoController {
                 .body("Exception occurred with HTTP headers and sent to monitoring system");
         }
     }
-}
\ No newline at end of file
+    
+    // try/catch yok; exception.handler.capture.mvc açıkken otomatik raporlanır
+    @GetMapping("/throw-uncaught")
+    public ResponseEntity<String> throwUncaught(@RequestParam(defaultValue = "runtime") String type) {
+        demoService.throwException(type);
+        return ResponseEntity.ok("No exception thrown");
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.exception.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+final class BenchmarkSupport {
+    
+    private static final RecordMetadata METADATA =
+        new RecordMetadata(new TopicPartition("exceptions", 0), 0, 0, 0, 0, 0);
+    
+    private BenchmarkSupport() {
+    }
+    
+    // Broker yok, history tutulmaz; send() hemen başarılı callback çağırır
+    static KafkaTemplate<String, byte[]> noopKafkaTemplate() {
+        MockProducer<String, byte[]> producer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer()) {
+            @Override
+            public synchronized Future<RecordMetadata> send(ProducerRecord<String, byte[]> record, Callback callback) {
+                if (callback != null) {
+                    callback.onCompletion(METADATA, null);
+                }
+                return CompletableFuture.completedFuture(METADATA);
+            }
+            
+            @Override
+            public void close() {
+            }
+            
+            @Override
+            public void close(Duration timeout) {
+            }
+        };
+        ProducerFactory<String, byte[]> factory = () -> producer;
+        return new KafkaTemplate<>(factory);
+    }
+    
+    static ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        return objectMapper;
+    }
+    
+    // İstenen derinlikte gerçek bir çağrı zinciriyle exception üretir
+    static Exception exceptionWithDepth(int depth) {
+        try {
+            recurse(depth);
+        } catch (Exception e) {
+            return e;
+        }
+        throw new IllegalStateException("unreachable");
+    }
+    
+    private static void recurse(int remaining) {
+        if (remaining <= 0) {
+            throw new IllegalStateException("Order 12345 could not be processed for user 42");
+        }
+        recurse(remaining - 1);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.exception.benchmarks;
+
+import com.example.exception.handler.id.RandomUuidIdGenerator;
+import com.example.exception.handler.id.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+// UUID.randomUUID SecureRandom'a gider; çok thread'de farkı görmek için @Threads(8) varyantları
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IdGeneratorBenchmark {
+    
+    private final RandomUuidIdGenerator random = new RandomUuidIdGenerator();
+    private final TimeOrderedIdGenerator timeOrdered = new TimeOrderedIdGenerator();
+    
+    @Benchmark
+    public String randomUuid() {
+        return random.nextId();
+    }
+    
+    @Benchmark
+    public String timeOrdered() {
+        return timeOrdered.nextId();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String randomUuidContended() {
+        return random.nextId();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String timeOrderedContended() {
+        return timeOrdered.nextId();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.exception.benchmarks;
+
+import com.example.exception.handler.codec.ExceptionDtoCodec;
+import com.example.exception.handler.codec.ExceptionDtoWriter;
+import com.example.exception.handler.codec.StaticMetadata;
+import com.example.exception.handler.codec.WireFormat;
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.ExceptionDto;
+import com.example.exception.handler.service.StackTraceCapture;
+import com.example.exception.monitor.entity.ExceptionRecord;
+import com.example.exception.monitor.util.ExceptionRecordDecoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monitor-side decode of one event: the JsonNode tree mapping the consumer used before
+ * against the streaming ExceptionRecordDecoder, for JSON and Smile payloads from the
+ * library's codec.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecordDecodeBenchmark {
+    
+    @Param({"JSON", "SMILE"})
+    public WireFormat format;
+    
+    private ObjectMapper treeMapper;
+    private ExceptionRecordDecoder decoder;
+    private byte[] payload;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ExceptionHandlerProperties properties = new ExceptionHandlerProperties();
+        properties.setProjectName("benchmark-project");
+        properties.setComponentName("benchmark-component");
+        properties.setPodName("benchmark-pod-0");
+        properties.setPodIp("10.0.0.1");
+        properties.setClusterName("benchmark-cluster");
+        properties.setEnvironment("PROD");
+        properties.getStackTrace().getInAppPackages().add("com.example");
+        
+        Exception exception = BenchmarkSupport.exceptionWithDepth(50);
+        StackTraceCapture.CapturedStack stack = new StackTraceCapture(properties.getStackTrace()).capture(exception);
+        
+        ExceptionDto dto = new ExceptionDto();
+        dto.setId("0192b3c4-5d6e-7f80-9a1b-2c3d4e5f6a7b");
+        dto.setExceptionType(exception.getClass().getSimpleName());
+        dto.setMessage(exception.getMessage());
+        dto.setStackTrace(stack.getRendered());
+        dto.setFrames(stack.getFrames());
+        dto.setTimestamp(LocalDateTime.now());
+        dto.setFingerprint("3f2a9c1e");
+        dto.setServiceName("OrderController");
+        dto.setMethod("POST");
+        dto.setUrl("/api/orders/12345");
+        dto.setUserAgent("Mozilla/5.0 (X11; Linux x86_64) benchmark");
+        dto.setSessionId("7F3C2A1B9E8D");
+        Map<String, Object> additionalData = new LinkedHashMap<>();
+        additionalData.put("orderId", 12345);
+        additionalData.put("tenant", "acme");
+        additionalData.put("headers", Map.of("Accept", "application/json", "X-Request-Id", "9f8e7d6c5b4a"));
+        dto.setAdditionalData(additionalData);
+        
+        ObjectMapper objectMapper = BenchmarkSupport.objectMapper();
+        payload = new ExceptionDtoCodec(objectMapper, format, new ExceptionDtoWriter(StaticMetadata.from(properties))).encode(dto);
+        treeMapper = format == WireFormat.SMILE ? new ObjectMapper(new SmileFactory()) : objectMapper;
+        decoder = new ExceptionRecordDecoder(objectMapper.getFactory());
+    }
+    
+    @Benchmark
+    public ExceptionRecord tree() throws Exception {
+        return mapToExceptionRecord(treeMapper.readTree(payload));
+    }
+    
+    @Benchmark
+    public ExceptionRecord streaming() throws Exception {
+        List<ExceptionRecord> records = new ArrayList<>(1);
+        decoder.decode(payload, format == WireFormat.SMILE, false, records);
+        return records.get(0);
+    }
+    
+    // Consumer'ın önceki JsonNode eşlemesi (karşılaştırma için)
+    private static ExceptionRecord mapToExceptionRecord(JsonNode jsonNode) {
+        ExceptionRecord record = new ExceptionRecord();
+        record.setId(getStringValue(jsonNode, "id"));
+        record.setExceptionType(getStringValue(jsonNode, "exceptionType"));
+        record.setMessage(getStringValue(jsonNode, "message"));
+        record.setStackTrace(getStringValue(jsonNode, "stackTrace"));
+        JsonNode framesNode = jsonNode.get("frames");
+        if (framesNode != null && framesNode.isArray()) {
+            record.setFrames(framesNode.toString());
+        }
+        String timestampStr = getStringValue(jsonNode, "timestamp");
+        record.setTimestamp(timestampStr != null ? parseTimestamp(timestampStr) : LocalDateTime.now());
+        record.setProjectName(getStringValue(jsonNode, "projectName"));
+        record.setComponentName(getStringValue(jsonNode, "componentName"));
+        record.setPodName(getStringValue(jsonNode, "podName"));
+        record.setPodIp(getStringValue(jsonNode, "podIp"));
+        record.setClusterName(getStringValue(jsonNode, "clusterName"));
+        record.setEnvironment(getStringValue(jsonNode, "environment"));
+        record.setServiceName(getStringValue(jsonNode, "serviceName"));
+        record.setMethod(getStringValue(jsonNode, "method"));
+        record.setUrl(getStringValue(jsonNode, "url"));
+        record.setUserAgent(getStringValue(jsonNode, "userAgent"));
+        record.setSessionId(getStringValue(jsonNode, "sessionId"));
+        record.setFingerprint(getStringValue(jsonNode, "fingerprint"));
+        JsonNode occurrenceNode = jsonNode.get("occurrenceCount");
+        long occurrenceCount = occurrenceNode != null && occurrenceNode.canConvertToLong() ? occurrenceNode.asLong() : 1L;
+        record.setOccurrenceCount(Math.max(1L, occurrenceCount));
+        JsonNode sampledOutNode = jsonNode.get("sampledOutCount");
+        if (sampledOutNode != null && sampledOutNode.canConvertToLong() && sampledOutNode.asLong() > 0) {
+            record.setSampledOutCount(sampledOutNode.asLong());
+        }
+        String firstSeen = getStringValue(jsonNode, "firstSeen");
+        record.setFirstSeen(firstSeen != null ? parseTimestamp(firstSeen) : null);
+        String lastSeen = getStringValue(jsonNode, "lastSeen");
+        record.setLastSeen(lastSeen != null ? parseTimestamp(lastSeen) : null);
+        JsonNode samplesNode = jsonNode.get("samples");
+        if (samplesNode != null && !samplesNode.isNull()) {
+            record.setSamples(samplesNode.toString());
+        }
+        JsonNode additionalDataNode = jsonNode.get("additionalData");
+        if (additionalDataNode != null && !additionalDataNode.isNull()) {
+            record.setAdditionalData(additionalDataNode.toString());
+        }
+        return record;
+    }
+    
+    private static LocalDateTime parseTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
+    private static String getStringValue(JsonNode jsonNode, String fieldName) {
+        JsonNode node = jsonNode.get(fieldName);
+        return (node != null && !node.isNull()) ? node.asText() : null;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.exception.benchmarks;
+
+import com.example.exception.handler.codec.ExceptionDtoCodec;
+import com.example.exception.handler.codec.ExceptionDtoWriter;
+import com.example.exception.handler.codec.WireFormat;
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.ExceptionDto;
+import com.example.exception.handler.redaction.Redactor;
+import com.example.exception.handler.service.StackTraceCapture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Redaction cost: the single-pass Redactor against a naive scrub that runs one regex per
+ * rule, on a short message and a rendered stack trace, plus the full JSON encode of an
+ * event with redaction on and off. {@code secrets} puts a password, a card number and an
+ * e-mail address into the text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RedactionBenchmark {
+    
+    @Param({"false", "true"})
+    public boolean secrets;
+    
+    private static final Pattern[] NAIVE_RULES = {
+        Pattern.compile("(?i)(password|passwd|secret|token|apikey|api_key|api-key|authorization|cookie|credential)([\"' ]*[=:][\"' ]*)[^\\s&,;\"'}<>)\\]]+"),
+        Pattern.compile("(?i)bearer [^\\s&,;\"'}<>)\\]]+"),
+        Pattern.compile("\\b[2-6]\\d{3}(?:[ -]?\\d{4}){2,3}\\d{0,3}\\b"),
+        Pattern.compile("[A-Za-z0-9._%+-]+@[A-Za-z0-9-]+(?:\\.[A-Za-z0-9-]+)*\\.[A-Za-z]{2,}"),
+        Pattern.compile("eyJ[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+(?:\\.[A-Za-z0-9_-]*)?")
+    };
+    
+    private Redactor redactor;
+    private String message;
+    private String stackTrace;
+    private ExceptionDto dto;
+    private ExceptionDtoCodec plainCodec;
+    private ExceptionDtoCodec redactingCodec;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExceptionHandlerProperties properties = new ExceptionHandlerProperties();
+        properties.getStackTrace().getInAppPackages().add("com.example");
+        redactor = Redactor.compile(properties.getRedaction());
+        
+        message = secrets
+            ? "Payment failed for john.doe@example.com with card 4111 1111 1111 1111 (password=hunter2)"
+            : "Payment failed for order 12345 in tenant acme after 3 retries (gateway timeout)";
+        Exception exception = BenchmarkSupport.exceptionWithDepth(50);
+        stackTrace = message + "\n" + new StackTraceCapture(properties.getStackTrace()).capture(exception).getRendered();
+        
+        dto = new ExceptionDto();
+        dto.setId("0192b3c4-5d6e-7f80-9a1b-2c3d4e5f6a7b");
+        dto.setExceptionType("IllegalStateException");
+        dto.setMessage(message);
+        dto.setStackTrace(stackTrace);
+        dto.setTimestamp(LocalDateTime.now());
+        dto.setUrl(secrets ? "/api/pay?access_token=abc123&order=12345" : "/api/pay?order=12345");
+        Map<String, Object> additionalData = new LinkedHashMap<>();
+        additionalData.put("orderId", 12345);
+        additionalData.put("tenant", "acme");
+        additionalData.put("note", message);
+        additionalData.put(secrets ? "X-Auth-Token" : "X-Request-Id", "9f8e7d6c5b4a");
+        dto.setAdditionalData(additionalData);
+        
+        plainCodec = new ExceptionDtoCodec(BenchmarkSupport.objectMapper(), WireFormat.JSON,
+            new ExceptionDtoWriter(null, properties.getLimits(), null));
+        redactingCodec = new ExceptionDtoCodec(BenchmarkSupport.objectMapper(), WireFormat.JSON,
+            new ExceptionDtoWriter(null, properties.getLimits(), redactor));
+    }
+    
+    @Benchmark
+    public String messageRedactor() {
+        return redactor.redact(message);
+    }
+    
+    @Benchmark
+    public String messageNaiveRegex() {
+        return naive(message);
+    }
+    
+    @Benchmark
+    public String stackTraceRedactor() {
+        return redactor.redact(stackTrace);
+    }
+    
+    @Benchmark
+    public String stackTraceNaiveRegex() {
+        return naive(stackTrace);
+    }
+    
+    @Benchmark
+    public byte[] encodeWithoutRedaction() throws Exception {
+        return plainCodec.encode(dto);
+    }
+    
+    @Benchmark
+    public byte[] encodeWithRedaction() throws Exception {
+        return redactingCodec.encode(dto);
+    }
+    
+    private static String naive(String value) {
+        String result = value;
+        for (Pattern rule : NAIVE_RULES) {
+            result = rule.matcher(result).replaceAll("***MASKED***");
+        }
+        return result;
+    }
+}
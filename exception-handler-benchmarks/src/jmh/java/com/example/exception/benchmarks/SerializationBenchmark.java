@@ -0,0 +1,108 @@
+package com.example.exception.benchmarks;
+
+import com.example.exception.handler.codec.ExceptionDtoCodec;
+import com.example.exception.handler.codec.ExceptionDtoWriter;
+import com.example.exception.handler.codec.StaticMetadata;
+import com.example.exception.handler.codec.WireFormat;
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.ExceptionDto;
+import com.example.exception.handler.service.StackTraceCapture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExceptionDto serialization: the plain ObjectMapper (the original path) against the
+ * streaming codec in JSON and Smile. The encoded size per format is printed at tear-down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+    
+    @Param({"10", "50"})
+    public int stackDepth;
+    
+    private ObjectMapper objectMapper;
+    private ExceptionDtoCodec jsonCodec;
+    private ExceptionDtoCodec smileCodec;
+    private ExceptionDto dto;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExceptionHandlerProperties properties = new ExceptionHandlerProperties();
+        properties.setProjectName("benchmark-project");
+        properties.setComponentName("benchmark-component");
+        properties.setPodName("benchmark-pod-0");
+        properties.setPodIp("10.0.0.1");
+        properties.setClusterName("benchmark-cluster");
+        properties.setEnvironment("PROD");
+        properties.getStackTrace().getInAppPackages().add("com.example");
+        
+        objectMapper = BenchmarkSupport.objectMapper();
+        StaticMetadata staticMetadata = StaticMetadata.from(properties);
+        jsonCodec = new ExceptionDtoCodec(objectMapper, WireFormat.JSON, new ExceptionDtoWriter(staticMetadata));
+        smileCodec = new ExceptionDtoCodec(objectMapper, WireFormat.SMILE, new ExceptionDtoWriter(staticMetadata));
+        
+        Exception exception = BenchmarkSupport.exceptionWithDepth(stackDepth);
+        StackTraceCapture.CapturedStack stack = new StackTraceCapture(properties.getStackTrace()).capture(exception);
+        
+        dto = new ExceptionDto();
+        dto.setId("0192b3c4-5d6e-7f80-9a1b-2c3d4e5f6a7b");
+        dto.setExceptionType(exception.getClass().getSimpleName());
+        dto.setMessage(exception.getMessage());
+        dto.setStackTrace(stack.getRendered());
+        dto.setFrames(stack.getFrames());
+        dto.setTimestamp(LocalDateTime.now());
+        dto.setFingerprint("3f2a9c1e");
+        // Handler'daki gibi aynı String referansları, static blok yolu ölçülür
+        dto.setProjectName(properties.getProjectName());
+        dto.setComponentName(properties.getComponentName());
+        dto.setPodName(properties.getPodName());
+        dto.setPodIp(properties.getPodIp());
+        dto.setClusterName(properties.getClusterName());
+        dto.setEnvironment(properties.getEnvironment());
+        dto.setServiceName("OrderController");
+        dto.setMethod("POST");
+        dto.setUrl("/api/orders/12345");
+        dto.setUserAgent("Mozilla/5.0 (X11; Linux x86_64) benchmark");
+        dto.setSessionId("7F3C2A1B9E8D");
+        dto.setAdditionalData(Map.of("orderId", 12345, "tenant", "acme"));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        System.out.printf("%nstackDepth=%d bytes/event: objectMapper=%d codecJson=%d codecSmile=%d%n",
+                stackDepth,
+                objectMapper.writeValueAsBytes(dto).length,
+                jsonCodec.encode(dto).length,
+                smileCodec.encode(dto).length);
+    }
+    
+    @Benchmark
+    public byte[] objectMapper() throws Exception {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+    
+    @Benchmark
+    public byte[] codecJson() throws Exception {
+        return jsonCodec.encode(dto);
+    }
+    
+    @Benchmark
+    public byte[] codecSmile() throws Exception {
+        return smileCodec.encode(dto);
+    }
+}
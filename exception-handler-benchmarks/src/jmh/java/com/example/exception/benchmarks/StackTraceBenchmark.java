@@ -0,0 +1,55 @@
+package com.example.exception.benchmarks;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.service.StackTraceCapture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+// Stack trace render maliyeti derinliğe göre; printStackTrace eski yöntemin referansı
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StackTraceBenchmark {
+    
+    @Param({"10", "50", "200"})
+    public int depth;
+    
+    @Param({"false", "true"})
+    public boolean withCause;
+    
+    private StackTraceCapture capture;
+    private Exception exception;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExceptionHandlerProperties.StackTrace config = new ExceptionHandlerProperties.StackTrace();
+        config.getInAppPackages().add("com.example");
+        capture = new StackTraceCapture(config);
+        
+        Exception root = BenchmarkSupport.exceptionWithDepth(depth);
+        exception = withCause ? new RuntimeException("Wrapped failure", root) : root;
+    }
+    
+    @Benchmark
+    public StackTraceCapture.CapturedStack structuredCapture() {
+        return capture.capture(exception);
+    }
+    
+    @Benchmark
+    public String printStackTrace() {
+        StringWriter sw = new StringWriter();
+        exception.printStackTrace(new PrintWriter(sw));
+        return sw.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.exception.handler.capture;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.Map;
+
+/**
+ * Reports exceptions thrown by MVC handlers. It runs before every other resolver and never
+ * resolves anything itself, so the application's @ControllerAdvice and error pages keep
+ * producing the response.
+ */
+public class CaptureHandlerExceptionResolver implements HandlerExceptionResolver, Ordered {
+    
+    private final ExceptionCaptureReporter reporter;
+    private final boolean reportClientErrors;
+    
+    public CaptureHandlerExceptionResolver(ExceptionCaptureReporter reporter, ExceptionHandlerProperties.Capture config) {
+        this.reporter = reporter;
+        this.reportClientErrors = config.isReportClientErrors();
+    }
+    
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Exception ex) {
+        if (reportClientErrors || !isClientError(ex)) {
+            reporter.report(ex, "mvc", true, handlerData(handler));
+        }
+        // null: sıradaki resolver devam eder
+        return null;
+    }
+    
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+    
+    private static boolean isClientError(Exception ex) {
+        return ex instanceof ErrorResponse && ((ErrorResponse) ex).getStatusCode().is4xxClientError();
+    }
+    
+    private static Map<String, Object> handlerData(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            return Map.of("handler", method.getBeanType().getSimpleName() + "#" + method.getMethod().getName());
+        }
+        return Map.of();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.exception.handler.capture;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Reports exceptions that escape the filter chain: failures in other filters, and handler
+ * exceptions no resolver turned into a response. The exception is rethrown unchanged.
+ */
+public class ExceptionCaptureFilter extends OncePerRequestFilter {
+    
+    private final ExceptionCaptureReporter reporter;
+    
+    public ExceptionCaptureFilter(ExceptionCaptureReporter reporter) {
+        this.reporter = reporter;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServletException | IOException | RuntimeException e) {
+            // FrameworkServlet checked exception'ları ServletException ile sarar, asıl hata cause'ta
+            Throwable reported = e instanceof ServletException && e.getCause() != null ? e.getCause() : e;
+            report(request, reported);
+            throw e;
+        }
+    }
+    
+    private void report(HttpServletRequest request, Throwable throwable) {
+        // Bu filter RequestContextFilter'dan önce çalışır; HTTP bilgisi için request geçici olarak bağlanır
+        RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+        if (previous == null) {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        }
+        try {
+            reporter.report(throwable, "filter", true);
+        } finally {
+            if (previous == null) {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }
+    }
+}
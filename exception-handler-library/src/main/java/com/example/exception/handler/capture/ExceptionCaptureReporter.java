@@ -0,0 +1,59 @@
+package com.example.exception.handler.capture;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.service.ExceptionHandler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared entry point of the automatic capture points. A throwable that already reached
+ * one capture point (directly or as the cause of a wrapper) is not reported again.
+ */
+@Slf4j
+public class ExceptionCaptureReporter {
+    
+    private final ExceptionHandler exceptionHandler;
+    private final SeenThrowables seen;
+    
+    public ExceptionCaptureReporter(ExceptionHandler exceptionHandler, ExceptionHandlerProperties properties) {
+        this.exceptionHandler = exceptionHandler;
+        this.seen = new SeenThrowables(properties.getCapture().getSeenSetSize());
+        if (!properties.getAsync().isEnabled()) {
+            log.warn("Automatic exception capture is enabled but exception.handler.async is not; "
+                + "events will be serialized and sent on the failing thread");
+        }
+    }
+    
+    public void report(Throwable throwable, String source, boolean withHttpHeaders) {
+        report(throwable, source, withHttpHeaders, Map.of());
+    }
+    
+    public void report(Throwable throwable, String source, boolean withHttpHeaders, Map<String, Object> additionalData) {
+        // Error'lar (OOM vs.) raporlanmaz, handler sadece Exception alır
+        if (!(throwable instanceof Exception) || !seen.markIfNew(throwable)) {
+            return;
+        }
+        Exception exception = (Exception) throwable;
+        try {
+            Map<String, Object> data = additionalData.isEmpty()
+                ? Map.of("captureSource", source)
+                : withSource(additionalData, source);
+            if (withHttpHeaders) {
+                exceptionHandler.handleWithHttpHeaders(exception, data);
+            } else {
+                exceptionHandler.handle(exception, data);
+            }
+        } catch (Exception e) {
+            // Capture noktası uygulamanın kendi hata akışını asla bozmamalı
+            log.error("Error reporting captured exception", e);
+        }
+    }
+    
+    private static Map<String, Object> withSource(Map<String, Object> additionalData, String source) {
+        Map<String, Object> data = new HashMap<>(additionalData);
+        data.put("captureSource", source);
+        return data;
+    }
+}
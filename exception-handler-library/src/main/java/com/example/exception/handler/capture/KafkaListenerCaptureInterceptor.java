@@ -0,0 +1,111 @@
+package com.example.exception.handler.capture;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports @KafkaListener failures. Spring Boot applies a single RecordInterceptor /
+ * BatchInterceptor bean to its listener container factory; an application that already
+ * has one can add this to a CompositeRecordInterceptor.
+ * <p>
+ * The error handler's retries redeliver the same record and throw a new exception each
+ * time, so failures are deduplicated by topic/partition/offset: only the first failed
+ * delivery of a record (or of a batch, keyed by its first record) is reported. The
+ * delivery attempt is taken from the container's delivery attempt header when it is
+ * enabled, otherwise it is counted here.
+ */
+public class KafkaListenerCaptureInterceptor implements RecordInterceptor<Object, Object>, BatchInterceptor<Object, Object> {
+    
+    private final ExceptionCaptureReporter reporter;
+    // topic-partition@offset -> bu kayıt için görülen hata sayısı; en eski girişler düşer
+    private final Map<String, Integer> failedPositions;
+    
+    public KafkaListenerCaptureInterceptor(ExceptionCaptureReporter reporter) {
+        this(reporter, new ExceptionHandlerProperties.Capture());
+    }
+    
+    public KafkaListenerCaptureInterceptor(ExceptionCaptureReporter reporter, ExceptionHandlerProperties.Capture capture) {
+        this.reporter = reporter;
+        int maxPositions = Math.max(1, capture.getSeenSetSize());
+        this.failedPositions = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > maxPositions;
+            }
+        };
+    }
+    
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        return record;
+    }
+    
+    @Override
+    public ConsumerRecords<Object, Object> intercept(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        return records;
+    }
+    
+    @Override
+    public void failure(ConsumerRecord<Object, Object> record, Exception exception, Consumer<Object, Object> consumer) {
+        int failures = countFailure(record);
+        if (failures == 1) {
+            reporter.report(unwrap(exception), "kafka", false, Map.of(
+                "topic", record.topic(),
+                "partition", record.partition(),
+                "offset", record.offset(),
+                "deliveryAttempt", deliveryAttempt(record, failures)));
+        }
+    }
+    
+    @Override
+    public void failure(ConsumerRecords<Object, Object> records, Exception exception, Consumer<Object, Object> consumer) {
+        Iterator<ConsumerRecord<Object, Object>> it = records.iterator();
+        if (!it.hasNext()) {
+            reporter.report(unwrap(exception), "kafka", false, Map.of("batchSize", 0));
+            return;
+        }
+        ConsumerRecord<Object, Object> first = it.next();
+        int failures = countFailure(first);
+        if (failures == 1) {
+            reporter.report(unwrap(exception), "kafka", false, Map.of(
+                "batchSize", records.count(),
+                "topic", first.topic(),
+                "partition", first.partition(),
+                "offset", first.offset(),
+                "deliveryAttempt", deliveryAttempt(first, failures)));
+        }
+    }
+    
+    // Aynı pozisyonun kaçıncı hatası olduğunu döner
+    private int countFailure(ConsumerRecord<?, ?> record) {
+        String position = record.topic() + "-" + record.partition() + "@" + record.offset();
+        synchronized (failedPositions) {
+            return failedPositions.merge(position, 1, Integer::sum);
+        }
+    }
+    
+    // Header sadece container'da deliveryAttemptHeader açıksa gelir (4 byte int)
+    private static int deliveryAttempt(ConsumerRecord<?, ?> record, int counted) {
+        Header header = record.headers().lastHeader(KafkaHeaders.DELIVERY_ATTEMPT);
+        return header != null && header.value() != null && header.value().length == Integer.BYTES
+            ? ByteBuffer.wrap(header.value()).getInt() : counted;
+    }
+    
+    // Container listener hatasını ListenerExecutionFailedException ile sarar
+    private static Throwable unwrap(Exception exception) {
+        return exception instanceof ListenerExecutionFailedException && exception.getCause() != null
+            ? exception.getCause() : exception;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.exception.handler.capture;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Identity-based memory of the most recently reported throwables. It is a fixed ring of
+ * weak references, so it never holds an exception (or its stack) alive and needs no lock.
+ */
+final class SeenThrowables {
+    
+    private static final int MAX_CAUSE_DEPTH = 8;
+    
+    private final AtomicReferenceArray<WeakReference<Throwable>> slots;
+    private final AtomicInteger next = new AtomicInteger();
+    
+    SeenThrowables(int size) {
+        this.slots = new AtomicReferenceArray<>(Math.max(1, size));
+    }
+    
+    // İlk kez görülüyorsa işaretler ve true döner; kendisi ya da cause zincirinden biri görülmüşse false
+    boolean markIfNew(Throwable throwable) {
+        Throwable current = throwable;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (contains(current)) {
+                return false;
+            }
+            current = current.getCause();
+        }
+        slots.set(Math.floorMod(next.getAndIncrement(), slots.length()), new WeakReference<>(throwable));
+        return true;
+    }
+    
+    private boolean contains(Throwable throwable) {
+        for (int i = 0; i < slots.length(); i++) {
+            WeakReference<Throwable> ref = slots.get(i);
+            if (ref != null && ref.get() == throwable) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
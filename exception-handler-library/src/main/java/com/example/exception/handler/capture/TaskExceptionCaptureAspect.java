@@ -0,0 +1,37 @@
+package com.example.exception.handler.capture;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Map;
+
+/**
+ * Reports exceptions thrown by @Async and @Scheduled methods. These run on executor
+ * threads where nothing else would see the failure except a log line. The exception is
+ * rethrown, so the executor's own error handling is unchanged.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TaskExceptionCaptureAspect {
+    
+    private final ExceptionCaptureReporter reporter;
+    
+    public TaskExceptionCaptureAspect(ExceptionCaptureReporter reporter) {
+        this.reporter = reporter;
+    }
+    
+    @Around("@annotation(org.springframework.scheduling.annotation.Async)"
+        + " || @within(org.springframework.scheduling.annotation.Async)"
+        + " || @annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public Object captureTaskFailure(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            reporter.report(t, "task", false, Map.of("task", joinPoint.getSignature().toShortString()));
+            throw t;
+        }
+    }
+}
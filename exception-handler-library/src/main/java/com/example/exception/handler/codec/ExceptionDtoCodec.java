@@ -0,0 +1,175 @@
+package com.example.exception.handler.codec;
+
+import com.example.exception.handler.dto.ExceptionDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class ExceptionDtoCodec {
+    
+    private static final byte[] SCHEMA_VERSION_BYTES =
+        String.valueOf(ExceptionHeaders.CURRENT_SCHEMA_VERSION).getBytes(StandardCharsets.UTF_8);
+    
+    private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+    // Bundan büyüyen buffer thread'de tutulmaz, tek bir dev event kalıcı bellek yemesin
+    private static final int MAX_RETAINED_BUFFER_SIZE = 256 * 1024;
+    
+    private static final ThreadLocal<PooledBuffer> BUFFERS =
+        ThreadLocal.withInitial(() -> new PooledBuffer(INITIAL_BUFFER_SIZE));
+    
+    private final WireFormat format;
+    private final JsonFactory factory;
+    // Zarf içindeki event'ler için; Smile'da header ve paylaşılan isim/değer referansları olmadan yazılır
+    private final JsonFactory memberFactory;
+    private final ExceptionDtoWriter writer;
+    private final byte[] formatHeaderBytes;
+    // {"events":[ ve ]} byte'ları; arada hazır event byte'ları eklenir
+    private final byte[] envelopePrefix;
+    private final byte[] envelopeSuffix;
+    
+    public ExceptionDtoCodec(ObjectMapper objectMapper, WireFormat format) {
+        this(objectMapper, format, new ExceptionDtoWriter());
+    }
+    
+    public ExceptionDtoCodec(ObjectMapper objectMapper, WireFormat format, ExceptionDtoWriter writer) {
+        this.format = format;
+        // Smile mapper uygulamanın ObjectMapper ayarlarını (modüller vs.) devralır
+        ObjectMapper mapper = format == WireFormat.SMILE
+            ? objectMapper.copyWith(new SmileFactory()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            : objectMapper;
+        // Factory'nin codec'i mapper, additionalData içindeki rastgele tipler writeObject ile yazılabilir
+        this.factory = mapper.getFactory();
+        this.writer = writer;
+        this.formatHeaderBytes = format.getHeaderValue().getBytes(StandardCharsets.UTF_8);
+        
+        // Smile back-reference'ları doküman içi offset'lerdir; ayrı encode edilen event'ler zarfa ancak bunlar kapalıyken eklenebilir
+        JsonFactory envelopeFactory = factory;
+        if (format == WireFormat.SMILE) {
+            this.memberFactory = objectMapper.copyWith(SmileFactory.builder()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .disable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).getFactory();
+            envelopeFactory = SmileFactory.builder()
+                .disable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .disable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        } else {
+            this.memberFactory = factory;
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JsonGenerator gen = envelopeFactory.createGenerator(out);
+            gen.writeStartObject();
+            gen.writeFieldName(ExceptionDtoWriter.EVENTS);
+            gen.writeStartArray();
+            gen.flush();
+            this.envelopePrefix = out.toByteArray();
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.close();
+            byte[] empty = out.toByteArray();
+            this.envelopeSuffix = Arrays.copyOfRange(empty, envelopePrefix.length, empty.length);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not prepare exception envelope framing", e);
+        }
+    }
+    
+    public WireFormat getFormat() {
+        return format;
+    }
+    
+    // DTO doğrudan thread'e ait buffer'a yazılır; ara String ve ikinci UTF-8 encode yok
+    public byte[] encode(ExceptionDto dto) throws IOException {
+        return encode(factory, dto);
+    }
+    
+    // Envelope.append için; zarfın lock'u dışında, çağıran thread'in buffer'ında encode edilir
+    public byte[] encodeEnvelopeMember(ExceptionDto dto) throws IOException {
+        return encode(memberFactory, dto);
+    }
+    
+    private byte[] encode(JsonFactory target, ExceptionDto dto) throws IOException {
+        PooledBuffer buffer = BUFFERS.get();
+        buffer.reset();
+        try (JsonGenerator gen = target.createGenerator(buffer)) {
+            writer.write(gen, dto);
+        }
+        byte[] payload = buffer.toByteArray();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            BUFFERS.remove();
+        }
+        return payload;
+    }
+    
+    public Headers headers() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(ExceptionHeaders.FORMAT, formatHeaderBytes);
+        headers.add(ExceptionHeaders.SCHEMA_VERSION, SCHEMA_VERSION_BYTES);
+        return headers;
+    }
+    
+    public Headers envelopeHeaders(int eventCount) {
+        Headers headers = headers();
+        headers.add(ExceptionHeaders.ENVELOPE, String.valueOf(eventCount).getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+    
+    // encodeEnvelopeMember ile hazırlanmış event'ler açık bir {"events": [...]} zarfına eklenir; thread-safe değildir
+    public Envelope openEnvelope() {
+        return new Envelope();
+    }
+    
+    public final class Envelope {
+        
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        private int count;
+        
+        private Envelope() {
+            buffer.writeBytes(envelopePrefix);
+        }
+        
+        // Yalnızca bitmiş byte'lar kopyalanır, burada encode hatası olamaz
+        public void append(byte[] member) {
+            if (count > 0 && format == WireFormat.JSON) {
+                buffer.write(',');
+            }
+            buffer.writeBytes(member);
+            count++;
+        }
+        
+        public int count() {
+            return count;
+        }
+        
+        public int byteSize() {
+            return buffer.size() + envelopeSuffix.length;
+        }
+        
+        public byte[] finish() {
+            buffer.writeBytes(envelopeSuffix);
+            return buffer.toByteArray();
+        }
+    }
+    
+    private static final class PooledBuffer extends ByteArrayOutputStream {
+        
+        PooledBuffer(int size) {
+            super(size);
+        }
+        
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
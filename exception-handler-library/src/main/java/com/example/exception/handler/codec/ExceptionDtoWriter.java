@@ -0,0 +1,350 @@
+package com.example.exception.handler.codec;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.ExceptionDto;
+import com.example.exception.handler.dto.StackFrameDto;
+import com.example.exception.handler.redaction.Redactor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes ExceptionDto field by field to a JsonGenerator (JSON or Smile) instead of going
+ * through databind. Field names are pre-encoded once; null fields are skipped.
+ * Static per-process metadata is written from a block prepared at startup.
+ * <p>
+ * Size limits are applied while writing: long strings are cut with a marker, nested
+ * additionalData is cut at a depth and element count, and once the event passes
+ * maxEventBytes the remaining additionalData entries and samples are skipped. Other
+ * values (POJOs, dates, enums) are first converted to maps, lists and scalars with the
+ * generator's ObjectMapper, so the same limits apply to them.
+ * Free-text fields (message, stack trace, url, additionalData strings) go through the
+ * Redactor before they are cut.
+ */
+public class ExceptionDtoWriter {
+    
+    static final SerializableString ID = new SerializedString("id");
+    static final SerializableString EXCEPTION_TYPE = new SerializedString("exceptionType");
+    static final SerializableString MESSAGE = new SerializedString("message");
+    static final SerializableString STACK_TRACE = new SerializedString("stackTrace");
+    static final SerializableString FRAMES = new SerializedString("frames");
+    static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    static final SerializableString PROJECT_NAME = new SerializedString("projectName");
+    static final SerializableString COMPONENT_NAME = new SerializedString("componentName");
+    static final SerializableString POD_NAME = new SerializedString("podName");
+    static final SerializableString POD_IP = new SerializedString("podIp");
+    static final SerializableString CLUSTER_NAME = new SerializedString("clusterName");
+    static final SerializableString ENVIRONMENT = new SerializedString("environment");
+    static final SerializableString SERVICE_NAME = new SerializedString("serviceName");
+    static final SerializableString METHOD = new SerializedString("method");
+    static final SerializableString URL = new SerializedString("url");
+    static final SerializableString USER_AGENT = new SerializedString("userAgent");
+    static final SerializableString SESSION_ID = new SerializedString("sessionId");
+    static final SerializableString ADDITIONAL_DATA = new SerializedString("additionalData");
+    static final SerializableString FINGERPRINT = new SerializedString("fingerprint");
+    static final SerializableString OCCURRENCE_COUNT = new SerializedString("occurrenceCount");
+    static final SerializableString FIRST_SEEN = new SerializedString("firstSeen");
+    static final SerializableString LAST_SEEN = new SerializedString("lastSeen");
+    static final SerializableString SAMPLES = new SerializedString("samples");
+    static final SerializableString SAMPLED_OUT_COUNT = new SerializedString("sampledOutCount");
+    
+    static final SerializableString EVENTS = new SerializedString("events");
+    
+    static final SerializableString CAUSE_INDEX = new SerializedString("causeIndex");
+    static final SerializableString CLASS_NAME = new SerializedString("className");
+    static final SerializableString METHOD_NAME = new SerializedString("methodName");
+    static final SerializableString FILE_NAME = new SerializedString("fileName");
+    static final SerializableString LINE_NUMBER = new SerializedString("lineNumber");
+    static final SerializableString IN_APP = new SerializedString("inApp");
+    static final SerializableString COLLAPSED_FRAMES = new SerializedString("collapsedFrames");
+    
+    // Kesilen map'lerde atlanan giriş sayısı bu key ile yazılır
+    static final String TRUNCATED_KEY = "_truncated";
+    static final String MAX_DEPTH_MARKER = "[max depth exceeded]";
+    
+    private final StaticMetadata staticMetadata;
+    private final ExceptionHandlerProperties.Limits limits;
+    private final Redactor redactor;
+    
+    public ExceptionDtoWriter() {
+        this(null);
+    }
+    
+    public ExceptionDtoWriter(StaticMetadata staticMetadata) {
+        this(staticMetadata, new ExceptionHandlerProperties.Limits());
+    }
+    
+    public ExceptionDtoWriter(StaticMetadata staticMetadata, ExceptionHandlerProperties.Limits limits) {
+        this(staticMetadata, limits, null);
+    }
+    
+    public ExceptionDtoWriter(StaticMetadata staticMetadata, ExceptionHandlerProperties.Limits limits, Redactor redactor) {
+        this.staticMetadata = staticMetadata;
+        this.limits = limits;
+        this.redactor = redactor;
+    }
+    
+    public void write(JsonGenerator gen, ExceptionDto dto) throws IOException {
+        long start = outputSize(gen);
+        long byteLimit = start >= 0 && limits.getMaxEventBytes() > 0 ? start + limits.getMaxEventBytes() : Long.MAX_VALUE;
+        gen.writeStartObject();
+        
+        writeString(gen, ID, dto.getId());
+        // Pod/proje bilgileri process boyunca aynı, bir kez encode edilmiş hali yazılır
+        boolean staticWritten = dto.getId() != null && staticMetadata != null && staticMetadata.matches(dto);
+        if (staticWritten) {
+            staticMetadata.write(gen);
+        }
+        
+        writeString(gen, EXCEPTION_TYPE, dto.getExceptionType());
+        writeRedacted(gen, MESSAGE, dto.getMessage(), limits.getMaxMessageLength());
+        writeRedacted(gen, STACK_TRACE, dto.getStackTrace(), limits.getMaxStackTraceLength());
+        writeFrames(gen, dto.getFrames());
+        writeTimestamp(gen, TIMESTAMP, dto.getTimestamp());
+        
+        if (!staticWritten) {
+            writeString(gen, PROJECT_NAME, dto.getProjectName());
+            writeString(gen, COMPONENT_NAME, dto.getComponentName());
+            writeString(gen, POD_NAME, dto.getPodName());
+            writeString(gen, POD_IP, dto.getPodIp());
+            writeString(gen, CLUSTER_NAME, dto.getClusterName());
+            writeString(gen, ENVIRONMENT, dto.getEnvironment());
+        }
+        
+        writeString(gen, SERVICE_NAME, dto.getServiceName());
+        writeString(gen, METHOD, dto.getMethod());
+        writeRedacted(gen, URL, dto.getUrl(), limits.getMaxStringLength());
+        writeString(gen, USER_AGENT, dto.getUserAgent());
+        writeString(gen, SESSION_ID, dto.getSessionId());
+        if (dto.getAdditionalData() != null) {
+            gen.writeFieldName(ADDITIONAL_DATA);
+            writeMap(gen, dto.getAdditionalData(), 1, byteLimit);
+        }
+        
+        writeString(gen, FINGERPRINT, dto.getFingerprint());
+        gen.writeFieldName(OCCURRENCE_COUNT);
+        gen.writeNumber(dto.getOccurrenceCount());
+        if (dto.getSampledOutCount() > 0) {
+            gen.writeFieldName(SAMPLED_OUT_COUNT);
+            gen.writeNumber(dto.getSampledOutCount());
+        }
+        writeTimestamp(gen, FIRST_SEEN, dto.getFirstSeen());
+        writeTimestamp(gen, LAST_SEEN, dto.getLastSeen());
+        if (dto.getSamples() != null) {
+            gen.writeFieldName(SAMPLES);
+            gen.writeStartArray();
+            for (Map<String, Object> sample : dto.getSamples()) {
+                if (outputSize(gen) > byteLimit) {
+                    break;
+                }
+                writeLimited(gen, sample, 1, byteLimit);
+            }
+            gen.writeEndArray();
+        }
+        
+        gen.writeEndObject();
+    }
+    
+    protected void writeValue(JsonGenerator gen, Object value) throws IOException {
+        gen.writeObject(value);
+    }
+    
+    protected void writeString(JsonGenerator gen, SerializableString field, String value) throws IOException {
+        writeString(gen, field, value, limits.getMaxStringLength());
+    }
+    
+    private void writeString(JsonGenerator gen, SerializableString field, String value, int maxLength) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(field);
+            gen.writeString(truncate(value, maxLength));
+        }
+    }
+    
+    private void writeRedacted(JsonGenerator gen, SerializableString field, String value, int maxLength) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(field);
+            gen.writeString(redactAndTruncate(value, maxLength));
+        }
+    }
+    
+    // POJO'lar ve diğer tipler önce Map/List/scalar'a çevrilir, limitler onlara da uygulanır
+    private void writeLimited(JsonGenerator gen, Object value, int depth, long byteLimit) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else if (value instanceof CharSequence) {
+            gen.writeString(redactAndTruncate((CharSequence) value, limits.getMaxStringLength()));
+        } else if (value instanceof Number || value instanceof Boolean) {
+            writeValue(gen, value);
+        } else if (value instanceof Map || value instanceof Collection || value.getClass().isArray()) {
+            if (limits.getMaxDepth() > 0 && depth > limits.getMaxDepth()) {
+                gen.writeString(MAX_DEPTH_MARKER);
+            } else if (value instanceof Map) {
+                writeMap(gen, (Map<?, ?>) value, depth, byteLimit);
+            } else if (value instanceof Collection) {
+                writeCollection(gen, (Collection<?>) value, depth, byteLimit);
+            } else {
+                writeArray(gen, value, depth, byteLimit);
+            }
+        } else {
+            Object converted = toPlainValue(gen, value);
+            if (converted == null || isPlainValue(converted)) {
+                writeLimited(gen, converted, depth, byteLimit);
+            } else {
+                writeValue(gen, converted);
+            }
+        }
+    }
+    
+    // Codec'in kendi serializer'larıyla (JavaTimeModule vb.) Map/List/String/Number'a çevirir
+    private static Object toPlainValue(JsonGenerator gen, Object value) {
+        ObjectCodec codec = gen.getCodec();
+        return codec instanceof ObjectMapper ? ((ObjectMapper) codec).convertValue(value, Object.class) : value;
+    }
+    
+    private static boolean isPlainValue(Object value) {
+        return value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+            || value instanceof Map || value instanceof Collection || value.getClass().isArray();
+    }
+    
+    private void writeMap(JsonGenerator gen, Map<?, ?> map, int depth, long byteLimit) throws IOException {
+        int max = maxElements();
+        int written = 0;
+        gen.writeStartObject();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (written == max || outputSize(gen) > byteLimit) {
+                break;
+            }
+            String key = truncate(String.valueOf(entry.getKey()), limits.getMaxStringLength());
+            gen.writeFieldName(key);
+            if (redactor != null && entry.getValue() != null && redactor.isSensitiveKey(key)) {
+                gen.writeString(redactor.getMask());
+            } else {
+                writeLimited(gen, entry.getValue(), depth + 1, byteLimit);
+            }
+            written++;
+        }
+        if (written < map.size()) {
+            gen.writeFieldName(TRUNCATED_KEY);
+            gen.writeNumber(map.size() - written);
+        }
+        gen.writeEndObject();
+    }
+    
+    private void writeCollection(JsonGenerator gen, Collection<?> values, int depth, long byteLimit) throws IOException {
+        int max = maxElements();
+        int written = 0;
+        gen.writeStartArray();
+        Iterator<?> it = values.iterator();
+        while (it.hasNext() && written < max && outputSize(gen) <= byteLimit) {
+            writeLimited(gen, it.next(), depth + 1, byteLimit);
+            written++;
+        }
+        if (written < values.size()) {
+            gen.writeString("[" + (values.size() - written) + " more]");
+        }
+        gen.writeEndArray();
+    }
+    
+    // Request parametreleri String[] olarak gelir; primitive array'ler de buradan geçer
+    private void writeArray(JsonGenerator gen, Object array, int depth, long byteLimit) throws IOException {
+        int length = Array.getLength(array);
+        int count = Math.min(length, maxElements());
+        gen.writeStartArray();
+        int written = 0;
+        while (written < count && outputSize(gen) <= byteLimit) {
+            writeLimited(gen, Array.get(array, written), depth + 1, byteLimit);
+            written++;
+        }
+        if (written < length) {
+            gen.writeString("[" + (length - written) + " more]");
+        }
+        gen.writeEndArray();
+    }
+    
+    private int maxElements() {
+        return limits.getMaxCollectionSize() > 0 ? limits.getMaxCollectionSize() : Integer.MAX_VALUE;
+    }
+    
+    // Kesilecek kısım taranmaz; sınırdaki bir secret de maskelensin diye LOOKAHEAD kadar fazlası taranır
+    private String redactAndTruncate(CharSequence value, int maxLength) {
+        if (redactor == null) {
+            return truncate(value, maxLength);
+        }
+        int length = value.length();
+        if (maxLength <= 0 || length <= maxLength) {
+            return redactor.redact(value.toString());
+        }
+        int scanned = Math.min(length, maxLength + Redactor.LOOKAHEAD);
+        return truncate(redactor.redact(value.subSequence(0, scanned).toString()), maxLength, length - scanned);
+    }
+    
+    static String truncate(CharSequence value, int maxLength) {
+        return truncate(value, maxLength, 0);
+    }
+    
+    // Sadece tutulan kısım kopyalanır; surrogate çifti ortadan bölünmez
+    private static String truncate(CharSequence value, int maxLength, int alreadyDropped) {
+        int length = value.length();
+        if (maxLength <= 0 || length <= maxLength) {
+            return alreadyDropped > 0
+                ? value + "...[truncated " + alreadyDropped + " chars]" : value.toString();
+        }
+        int end = maxLength;
+        if (Character.isHighSurrogate(value.charAt(end - 1))) {
+            end--;
+        }
+        return value.subSequence(0, end) + "...[truncated " + (length - end + alreadyDropped) + " chars]";
+    }
+    
+    // Generator bir byte buffer'a yazıyorsa event'in o ana kadarki boyutu; değilse -1 (limit yok)
+    private static long outputSize(JsonGenerator gen) {
+        Object target = gen.getOutputTarget();
+        return target instanceof ByteArrayOutputStream
+            ? ((ByteArrayOutputStream) target).size() + Math.max(0, gen.getOutputBuffered()) : -1;
+    }
+    
+    private void writeTimestamp(JsonGenerator gen, SerializableString field, LocalDateTime value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(field);
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+    
+    private void writeFrames(JsonGenerator gen, List<StackFrameDto> frames) throws IOException {
+        if (frames == null) {
+            return;
+        }
+        gen.writeFieldName(FRAMES);
+        gen.writeStartArray();
+        for (StackFrameDto frame : frames) {
+            gen.writeStartObject();
+            gen.writeFieldName(CAUSE_INDEX);
+            gen.writeNumber(frame.getCauseIndex());
+            writeString(gen, CLASS_NAME, frame.getClassName());
+            writeString(gen, METHOD_NAME, frame.getMethodName());
+            writeString(gen, FILE_NAME, frame.getFileName());
+            gen.writeFieldName(LINE_NUMBER);
+            gen.writeNumber(frame.getLineNumber());
+            gen.writeFieldName(IN_APP);
+            gen.writeBoolean(frame.isInApp());
+            if (frame.getCollapsedFrames() > 0) {
+                gen.writeFieldName(COLLAPSED_FRAMES);
+                gen.writeNumber(frame.getCollapsedFrames());
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+}
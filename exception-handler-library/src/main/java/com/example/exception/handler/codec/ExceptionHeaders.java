@@ -0,0 +1,15 @@
+package com.example.exception.handler.codec;
+
+// Kafka record header'ları, consumer payload'ı bunlara göre çözer
+public final class ExceptionHeaders {
+    
+    public static final String FORMAT = "exception-format";
+    public static final String SCHEMA_VERSION = "exception-schema-version";
+    // Varsa payload tek event değil {"events": [...]} zarfıdır, değeri event sayısı
+    public static final String ENVELOPE = "exception-envelope";
+    
+    public static final int CURRENT_SCHEMA_VERSION = 1;
+    
+    private ExceptionHeaders() {
+    }
+}
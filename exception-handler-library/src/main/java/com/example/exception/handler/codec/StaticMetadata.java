@@ -0,0 +1,214 @@
+package com.example.exception.handler.codec;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.ExceptionDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Per-process fields (project, component, pod, cluster, environment) encoded once at
+ * startup. JSON output gets them as one raw UTF-8 block; other formats get pre-encoded
+ * values per field.
+ */
+public final class StaticMetadata {
+    
+    private final String projectName;
+    private final String componentName;
+    private final String podName;
+    private final String podIp;
+    private final String clusterName;
+    private final String environment;
+    
+    private final SerializableString[] names;
+    private final SerializableString[] values;
+    private final SerializableString jsonBlock;
+    
+    private StaticMetadata(String projectName, String componentName, String podName,
+                           String podIp, String clusterName, String environment) {
+        this.projectName = projectName;
+        this.componentName = componentName;
+        this.podName = podName;
+        this.podIp = podIp;
+        this.clusterName = clusterName;
+        this.environment = environment;
+        
+        SerializableString[] allNames = {
+            ExceptionDtoWriter.PROJECT_NAME, ExceptionDtoWriter.COMPONENT_NAME, ExceptionDtoWriter.POD_NAME,
+            ExceptionDtoWriter.POD_IP, ExceptionDtoWriter.CLUSTER_NAME, ExceptionDtoWriter.ENVIRONMENT
+        };
+        String[] allValues = {projectName, componentName, podName, podIp, clusterName, environment};
+        
+        // Null alanlar hiç yazılmaz, dinamik yazımla aynı çıktı
+        int count = 0;
+        for (String value : allValues) {
+            if (value != null) {
+                count++;
+            }
+        }
+        this.names = new SerializableString[count];
+        this.values = new SerializableString[count];
+        for (int i = 0, j = 0; i < allValues.length; i++) {
+            if (allValues[i] != null) {
+                names[j] = allNames[i];
+                values[j++] = new SerializedString(allValues[i]);
+            }
+        }
+        this.jsonBlock = count > 0 ? new RawUtf8(renderJsonBlock()) : null;
+    }
+    
+    public static StaticMetadata from(ExceptionHandlerProperties properties) {
+        return new StaticMetadata(properties.getProjectName(), properties.getComponentName(), properties.getPodName(),
+            properties.getPodIp(), properties.getClusterName(), properties.getEnvironment());
+    }
+    
+    // DTO alanları bu instance'ınkilerle aynıysa true; createExceptionDto aynı referansları set ettiği için equals hemen döner
+    boolean matches(ExceptionDto dto) {
+        return Objects.equals(dto.getProjectName(), projectName)
+            && Objects.equals(dto.getComponentName(), componentName)
+            && Objects.equals(dto.getPodName(), podName)
+            && Objects.equals(dto.getPodIp(), podIp)
+            && Objects.equals(dto.getClusterName(), clusterName)
+            && Objects.equals(dto.getEnvironment(), environment);
+    }
+    
+    // Önünde en az bir alan yazılmış olmalı, blok virgülle başlar
+    void write(JsonGenerator gen) throws IOException {
+        if (jsonBlock == null) {
+            return;
+        }
+        if (gen instanceof JsonGeneratorImpl) {
+            gen.writeRaw(jsonBlock);
+            return;
+        }
+        for (int i = 0; i < names.length; i++) {
+            gen.writeFieldName(names[i]);
+            gen.writeString(values[i]);
+        }
+    }
+    
+    private String renderJsonBlock() {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator gen = new JsonFactory().createGenerator(out)) {
+            gen.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                gen.writeFieldName(names[i]);
+                gen.writeString(values[i]);
+            }
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // {"a":"b","c":"d"} -> ,"a":"b","c":"d"
+        String object = out.toString();
+        return "," + object.substring(1, object.length() - 1);
+    }
+    
+    // writeRaw() unquoted UTF-8 byte'ları (Writer'a yazan generator'da char'ları) olduğu gibi kopyalar.
+    // İçerik zaten JSON olduğu için quoted ve unquoted biçimler aynıdır
+    private static final class RawUtf8 implements SerializableString {
+        
+        private final String raw;
+        private final char[] chars;
+        private final byte[] bytes;
+        
+        RawUtf8(String raw) {
+            this.raw = raw;
+            this.chars = raw.toCharArray();
+            this.bytes = raw.getBytes(StandardCharsets.UTF_8);
+        }
+        
+        @Override
+        public String getValue() {
+            return raw;
+        }
+        
+        @Override
+        public int charLength() {
+            return chars.length;
+        }
+        
+        @Override
+        public char[] asQuotedChars() {
+            return chars.clone();
+        }
+        
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return bytes.clone();
+        }
+        
+        @Override
+        public byte[] asQuotedUTF8() {
+            return bytes.clone();
+        }
+        
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            return appendUnquotedUTF8(buffer, offset);
+        }
+        
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            return appendUnquoted(buffer, offset);
+        }
+        
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (offset + bytes.length > buffer.length) {
+                return -1;
+            }
+            System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+            return bytes.length;
+        }
+        
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            if (offset + chars.length > buffer.length) {
+                return -1;
+            }
+            System.arraycopy(chars, 0, buffer, offset, chars.length);
+            return chars.length;
+        }
+        
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            return writeUnquotedUTF8(out);
+        }
+        
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(bytes);
+            return bytes.length;
+        }
+        
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) {
+            return putUnquotedUTF8(buffer);
+        }
+        
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            if (bytes.length > buffer.remaining()) {
+                return -1;
+            }
+            buffer.put(bytes);
+            return bytes.length;
+        }
+        
+        @Override
+        public String toString() {
+            return raw;
+        }
+    }
+}
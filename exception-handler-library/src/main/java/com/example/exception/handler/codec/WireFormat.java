@@ -0,0 +1,16 @@
+package com.example.exception.handler.codec;
+
+public enum WireFormat {
+    JSON("json"),
+    SMILE("smile");
+    
+    private final String headerValue;
+    
+    WireFormat(String headerValue) {
+        this.headerValue = headerValue;
+    }
+    
+    public String getHeaderValue() {
+        return headerValue;
+    }
+}
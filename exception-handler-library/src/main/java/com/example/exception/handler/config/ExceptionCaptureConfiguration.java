@@ -0,0 +1,114 @@
+package com.example.exception.handler.config;
+
+import com.example.exception.handler.capture.CaptureHandlerExceptionResolver;
+import com.example.exception.handler.capture.ExceptionCaptureFilter;
+import com.example.exception.handler.capture.ExceptionCaptureReporter;
+import com.example.exception.handler.capture.KafkaListenerCaptureInterceptor;
+import com.example.exception.handler.capture.TaskExceptionCaptureAspect;
+import com.example.exception.handler.service.ExceptionHandler;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+/**
+ * Automatic capture points. Each one is registered only when its
+ * exception.handler.capture.*.enabled property is true; disabled ones cost nothing.
+ */
+@Configuration(proxyBeanMethods = false)
+class ExceptionCaptureConfiguration {
+    
+    private static final String PREFIX = "exception.handler.capture";
+    
+    @Bean
+    @ConditionalOnMissingBean
+    @Conditional(AnyCaptureEnabledCondition.class)
+    public ExceptionCaptureReporter exceptionCaptureReporter(ExceptionHandler exceptionHandler,
+                                                             ExceptionHandlerProperties properties) {
+        return new ExceptionCaptureReporter(exceptionHandler, properties);
+    }
+    
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(prefix = PREFIX + ".mvc", name = "enabled", havingValue = "true")
+    static class MvcCaptureConfiguration {
+        
+        @Bean
+        public CaptureHandlerExceptionResolver captureHandlerExceptionResolver(ExceptionCaptureReporter reporter,
+                                                                               ExceptionHandlerProperties properties) {
+            return new CaptureHandlerExceptionResolver(reporter, properties.getCapture());
+        }
+    }
+    
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(prefix = PREFIX + ".filter", name = "enabled", havingValue = "true")
+    static class FilterCaptureConfiguration {
+        
+        @Bean
+        public FilterRegistrationBean<ExceptionCaptureFilter> exceptionCaptureFilter(ExceptionCaptureReporter reporter) {
+            FilterRegistrationBean<ExceptionCaptureFilter> registration =
+                new FilterRegistrationBean<>(new ExceptionCaptureFilter(reporter));
+            // En dışta; diğer filter'lardan kaçan hatalar da görülür
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+    
+    // aspectjweaver yoksa bu sınıf hiç yüklenmez
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.aspectj.lang.ProceedingJoinPoint")
+    @ConditionalOnProperty(prefix = PREFIX + ".tasks", name = "enabled", havingValue = "true")
+    static class TaskCaptureConfiguration {
+        
+        @Bean
+        public TaskExceptionCaptureAspect taskExceptionCaptureAspect(ExceptionCaptureReporter reporter) {
+            return new TaskExceptionCaptureAspect(reporter);
+        }
+    }
+    
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RecordInterceptor.class)
+    @ConditionalOnProperty(prefix = PREFIX + ".kafka", name = "enabled", havingValue = "true")
+    static class KafkaCaptureConfiguration {
+        
+        // Boot listener factory'ye tek bir interceptor bean'i uygular; uygulamanınki varsa geri çekilir
+        @Bean
+        @ConditionalOnMissingBean({RecordInterceptor.class, BatchInterceptor.class})
+        public KafkaListenerCaptureInterceptor kafkaListenerCaptureInterceptor(ExceptionCaptureReporter reporter,
+                                                                               ExceptionHandlerProperties properties) {
+            return new KafkaListenerCaptureInterceptor(reporter, properties.getCapture());
+        }
+    }
+    
+    static class AnyCaptureEnabledCondition extends AnyNestedCondition {
+        
+        AnyCaptureEnabledCondition() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+        
+        @ConditionalOnProperty(prefix = PREFIX + ".mvc", name = "enabled", havingValue = "true")
+        static class Mvc {
+        }
+        
+        @ConditionalOnProperty(prefix = PREFIX + ".filter", name = "enabled", havingValue = "true")
+        static class Filter {
+        }
+        
+        @ConditionalOnProperty(prefix = PREFIX + ".tasks", name = "enabled", havingValue = "true")
+        static class Tasks {
+        }
+        
+        @ConditionalOnProperty(prefix = PREFIX + ".kafka", name = "enabled", havingValue = "true")
+        static class Kafka {
+        }
+    }
+}
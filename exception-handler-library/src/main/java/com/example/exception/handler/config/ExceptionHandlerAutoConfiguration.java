@@ -1,18 +1,39 @@
 package com.example.exception.handler.config;
 
+import com.example.exception.handler.id.ExceptionIdGenerator;
+import com.example.exception.handler.id.TimeOrderedIdGenerator;
+import com.example.exception.handler.metrics.ExceptionHandlerMetrics;
+import com.example.exception.handler.metrics.MicrometerExceptionHandlerMetrics;
 import com.example.exception.handler.service.ExceptionHandler;
+import com.example.exception.handler.transport.ExceptionTransport;
+import com.example.exception.handler.transport.HttpExceptionTransport;
+import com.example.exception.handler.transport.InProcessExceptionTransport;
+import com.example.exception.handler.transport.KafkaExceptionTransport;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.kafka.core.KafkaTemplate;
 
-@Configuration
+import java.util.function.Consumer;
+
+// Uygulamanın ObjectMapper'ı varsa o kullanılır; KafkaTemplate'imiz Boot'unkinden önce tanımlanır
+@AutoConfiguration(after = JacksonAutoConfiguration.class, before = KafkaAutoConfiguration.class)
 @EnableConfigurationProperties(ExceptionHandlerProperties.class)
-@Import(KafkaConfig.class)
+@Import({KafkaConfig.class, ExceptionCaptureConfiguration.class})
+@ImportRuntimeHints(ExceptionHandlerRuntimeHints.class)
 public class ExceptionHandlerAutoConfiguration {
     
     @Bean
@@ -25,9 +46,53 @@ public class ExceptionHandlerAutoConfiguration {
     
     @Bean
     @ConditionalOnMissingBean
-    public ExceptionHandler exceptionHandler(KafkaTemplate<String, String> kafkaTemplate,
+    public ExceptionIdGenerator exceptionIdGenerator() {
+        return new TimeOrderedIdGenerator();
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public ExceptionTransport exceptionTransport(ExceptionHandlerProperties properties,
+                                                 ObjectProvider<KafkaTemplate<String, byte[]>> kafkaTemplate,
+                                                 BeanFactory beanFactory) {
+        switch (properties.getTransport().getType()) {
+            case HTTP:
+                return new HttpExceptionTransport(properties.getTransport().getHttp());
+            case IN_PROCESS:
+                return new InProcessExceptionTransport(properties.getKafka().getTopic(), () -> ingestSink(beanFactory));
+            case KAFKA:
+            default:
+                return new KafkaExceptionTransport(kafkaTemplate.getObject(), properties);
+        }
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public ExceptionHandler exceptionHandler(ExceptionTransport exceptionTransport,
                                            ExceptionHandlerProperties properties,
-                                           ObjectMapper objectMapper) {
-        return new ExceptionHandler(kafkaTemplate, properties, objectMapper);
+                                           ObjectMapper objectMapper,
+                                           ExceptionIdGenerator exceptionIdGenerator,
+                                           ObjectProvider<ExceptionHandlerMetrics> exceptionHandlerMetrics) {
+        return new ExceptionHandler(exceptionTransport, properties, objectMapper, exceptionIdGenerator,
+            exceptionHandlerMetrics.getIfAvailable(() -> ExceptionHandlerMetrics.NOOP));
+    }
+    
+    // Monitor aynı context'teyse ingest pipeline'ını bu isimle yayınlar
+    @SuppressWarnings("unchecked")
+    private static Consumer<ConsumerRecord<String, byte[]>> ingestSink(BeanFactory beanFactory) {
+        return beanFactory.getBean(InProcessExceptionTransport.SINK_BEAN_NAME, Consumer.class);
+    }
+    
+    // Micrometer classpath'te yoksa bu sınıf hiç yüklenmez
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MetricsConfiguration {
+        
+        @Bean
+        @ConditionalOnMissingBean
+        public ExceptionHandlerMetrics exceptionHandlerMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            return registry != null ? new MicrometerExceptionHandlerMetrics(registry) : ExceptionHandlerMetrics.NOOP;
+        }
     }
 }
\ No newline at end of file
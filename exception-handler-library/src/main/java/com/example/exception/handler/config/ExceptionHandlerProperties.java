@@ -1,11 +1,16 @@
 package com.example.exception.handler.config;
 
+import com.example.exception.handler.codec.WireFormat;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Data
-@Component
 @ConfigurationProperties(prefix = "exception.handler")
 public class ExceptionHandlerProperties {
     private String projectName;
@@ -15,11 +20,269 @@ public class ExceptionHandlerProperties {
     private String clusterName;
     private String environment;
     
+    private Transport transport = new Transport();
     private Kafka kafka = new Kafka();
+    private Async async = new Async();
+    private Fingerprint fingerprint = new Fingerprint();
+    private Aggregation aggregation = new Aggregation();
+    private Sampling sampling = new Sampling();
+    private StackTrace stackTrace = new StackTrace();
+    private Spool spool = new Spool();
+    private HttpCapture httpCapture = new HttpCapture();
+    private Capture capture = new Capture();
+    private LocalLog localLog = new LocalLog();
+    private Limits limits = new Limits();
+    private Redaction redaction = new Redaction();
+    
+    @Data
+    public static class Transport {
+        private TransportType type = TransportType.KAFKA;
+        private Http http = new Http();
+    }
+    
+    @Data
+    public static class Http {
+        // Monitor'un ingest endpoint'i
+        private String url = "http://localhost:8080/api/ingest";
+        private int maxBatchSize = 100;
+        private int maxBatchBytes = 1024 * 1024;
+        private Duration linger = Duration.ofMillis(200);
+        // Doluysa yeni event'ler düşürülür ve failed sayılır
+        private int queueCapacity = 10000;
+        private Duration timeout = Duration.ofSeconds(5);
+        // close()'ta kuyruktakilerin gönderilmesi için beklenen en uzun süre
+        private Duration shutdownTimeout = Duration.ofSeconds(5);
+        // Örn. Authorization
+        private Map<String, String> headers = new HashMap<>();
+    }
     
     @Data
     public static class Kafka {
         private String topic = "exceptions";
         private String bootstrapServers = "localhost:9092";
+        // SMILE, record header ile işaretlenir; JSON ve SMILE producer'lar aynı topic'te birlikte çalışabilir
+        private WireFormat wireFormat = WireFormat.JSON;
+        // Record key'i; FINGERPRINT aynı hatanın tüm occurrence'larını aynı partition'a gönderir
+        private PartitionKey partitionKey = PartitionKey.ID;
+        private Producer producer = new Producer();
+        private Envelope envelope = new Envelope();
+    }
+    
+    @Data
+    public static class Producer {
+        // idempotence açıksa Kafka acks=all zorunlu tutar, bu değer yok sayılır
+        private String acks = "1";
+        private int retries = 3;
+        // Fırtına anında küçük record'lar yerine dolu batch'ler gönderilsin
+        private Duration linger = Duration.ofMillis(10);
+        private int batchSize = 64 * 1024;
+        // none | gzip | snappy | lz4 | zstd
+        private String compressionType = "lz4";
+        private int maxInFlightRequestsPerConnection = 5;
+        private long bufferMemory = 32L * 1024 * 1024;
+        private boolean idempotence = false;
+        // Broker yokken send() çağıran thread'i en fazla bu kadar bekletir
+        private Duration maxBlock = Duration.ofSeconds(5);
+        // Yukarıda olmayan ham producer ayarları
+        private Map<String, String> properties = new HashMap<>();
+        // Producer ilk event'te arka planda oluşturulur; hazır olana kadar event'ler bellekte bekler
+        private boolean lazyInit = true;
+        private int initBufferCapacity = 1024;
+        private Duration initRetryInterval = Duration.ofSeconds(1);
+    }
+    
+    @Data
+    public static class Envelope {
+        // Açıksa birden fazla event tek Kafka record'una paketlenir
+        private boolean enabled = false;
+        private int maxEvents = 100;
+        // Kafka max.request.size (1MB) altında kalmalı
+        private int maxBytes = 512 * 1024;
+        private Duration linger = Duration.ofMillis(200);
+        // FINGERPRINT key'inde her key'in ayrı zarfı olur; sınır aşılınca en eski zarf erken gönderilir
+        private int maxOpenEnvelopes = 16;
+    }
+    
+    @Data
+    public static class HttpCapture {
+        // Büyük/küçük harf duyarsız; çıktıda buradaki yazımla görünür
+        private List<String> headers = new ArrayList<>(List.of(
+            "Accept", "Accept-Language", "Accept-Encoding", "Content-Type", "Content-Length",
+            "Authorization", "X-Forwarded-For", "X-Real-IP", "X-Forwarded-Proto", "Origin",
+            "Referer", "Host", "Connection", "Cache-Control"));
+        // Bu prefix'lerle başlayan header'lar listede olmasa da alınır
+        private List<String> headerPrefixes = new ArrayList<>(List.of("X-"));
+        private List<String> excludedHeaders = new ArrayList<>();
+        private List<String> maskedHeaders = new ArrayList<>(List.of("Authorization", "Proxy-Authorization", "Cookie"));
+        private boolean captureParameters = true;
+        // Boşsa tüm parametreler alınır
+        private List<String> parameters = new ArrayList<>();
+        private List<String> excludedParameters = new ArrayList<>();
+        private List<String> maskedParameters = new ArrayList<>(List.of("password", "token", "secret"));
+        private int maxHeaders = 50;
+        private int maxParameters = 50;
+        private int maxValueLength = 1024;
+        private String mask = "***MASKED***";
+        private boolean captureRemoteAddress = true;
+    }
+    
+    @Data
+    public static class Capture {
+        // Her capture noktası ayrı açılır; kapalı olanların bean'i hiç oluşturulmaz
+        private CapturePoint mvc = new CapturePoint();
+        private CapturePoint filter = new CapturePoint();
+        // @Async ve @Scheduled metotlar, aspectjweaver gerektirir
+        private CapturePoint tasks = new CapturePoint();
+        private CapturePoint kafka = new CapturePoint();
+        // Aynı Throwable instance'ı birden fazla noktadan raporlanmasın diye hatırlanan son exception sayısı;
+        // Kafka retry'larında hatırlanan son kayıt pozisyonu sayısı da budur
+        private int seenSetSize = 256;
+        // 4xx ErrorResponse'lar (404, validation vs.) varsayılan olarak raporlanmaz
+        private boolean reportClientErrors = false;
+    }
+    
+    @Data
+    public static class CapturePoint {
+        private boolean enabled = false;
+    }
+    
+    @Data
+    public static class LocalLog {
+        // Uygulama loguna yazılan kayıt; Kafka'ya gönderimi etkilemez
+        private LocalLogMode mode = LocalLogMode.FULL;
+        // RATE_LIMITED: fingerprint başına bu aralıkta en fazla bir stack; FIRST_OCCURRENCE: özet aralığı
+        private Duration interval = Duration.ofSeconds(60);
+        // Bu sayıya ulaşılınca yeni fingerprint'ler ortak bir sayaçla sınırlanır
+        private int maxFingerprints = 10000;
+    }
+    
+    @Data
+    public static class Limits {
+        // Serialize edilirken uygulanır; 0 limiti kapatır
+        private int maxMessageLength = 8 * 1024;
+        private int maxStackTraceLength = 64 * 1024;
+        // Diğer string alanlar ve additionalData içindeki string'ler
+        private int maxStringLength = 4 * 1024;
+        // additionalData içindeki map/list/array başına eleman sayısı
+        private int maxCollectionSize = 100;
+        // additionalData içindeki iç içe map/list derinliği
+        private int maxDepth = 5;
+        // Aşılınca kalan additionalData girişleri ve sample'lar yazılmaz
+        private int maxEventBytes = 256 * 1024;
+    }
+    
+    @Data
+    public static class Redaction {
+        private boolean enabled = true;
+        // additionalData key'lerinde içerik olarak, mesajlarda key=value / key: value olarak aranır
+        private List<String> keys = new ArrayList<>(List.of(
+            "password", "passwd", "secret", "token", "apikey", "api_key", "api-key",
+            "authorization", "cookie", "credential", "bearer"));
+        // Luhn kontrolü geçen 13-19 haneli numaralar
+        private boolean cardNumbers = true;
+        private boolean emails = true;
+        private boolean jwts = true;
+        // Ek regex'ler tek bir pattern'e birleştirilir, ikinci geçişte uygulanır
+        private List<String> patterns = new ArrayList<>();
+        private String mask = "***MASKED***";
+    }
+    
+    @Data
+    public static class Spool {
+        // Açıksa Kafka'ya ulaşılamadığında event'ler diske yazılır ve sonra sırayla gönderilir
+        private boolean enabled = false;
+        private String directory = System.getProperty("java.io.tmpdir") + "/exception-handler-spool";
+        // Disk kullanımı en fazla segmentSize * maxSegments
+        private int segmentSize = 8 * 1024 * 1024;
+        private int maxSegments = 8;
+        private int replayRatePerSecond = 200;
+        private Duration retryInterval = Duration.ofSeconds(1);
+        private Duration sendTimeout = Duration.ofSeconds(10);
+        private Duration shutdownTimeout = Duration.ofSeconds(5);
+    }
+    
+    @Data
+    public static class Async {
+        private boolean enabled = false;
+        private int queueCapacity = 1024;
+        private int workerThreads = 1;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+        // Sadece BLOCK policy için kullanılır
+        private Duration blockTimeout = Duration.ofMillis(50);
+        private Duration shutdownTimeout = Duration.ofSeconds(5);
+    }
+    
+    @Data
+    public static class Fingerprint {
+        // Fingerprint'e dahil edilecek en üstteki frame sayısı
+        private int frameCount = 5;
+        private boolean normalizeMessage = true;
+    }
+    
+    @Data
+    public static class Aggregation {
+        private boolean enabled = false;
+        private Duration window = Duration.ofSeconds(10);
+        private int maxSamples = 3;
+        // Bu sayıya ulaşılınca yeni fingerprint'ler aggregate edilmeden gönderilir
+        private int maxEntries = 10000;
+    }
+    
+    @Data
+    public static class Sampling {
+        private boolean enabled = false;
+        // 0.0 - 1.0 arası, raporlanacak event oranı
+        private double defaultRate = 1.0;
+        // Exception tipine göre oran (simple ya da fully qualified class name)
+        private Map<String, Double> exceptionRates = new HashMap<>();
+        // Environment'a göre çarpan, örn. PROD: 0.1
+        private Map<String, Double> environmentRates = new HashMap<>();
+        // Exception tipi + fırlatan frame başına token bucket
+        private double maxEventsPerSecond = 10;
+        private int burst = 20;
+        private int maxKeys = 10000;
+    }
+    
+    @Data
+    public static class StackTrace {
+        private int maxDepth = 50;
+        private int maxCauseDepth = 5;
+        // Bu paketlerin dışındaki ardışık frame'ler tek satıra indirilir
+        private List<String> inAppPackages = new ArrayList<>();
+        private boolean collapseFrameworkFrames = true;
+        private int frameCacheSize = 4096;
+    }
+    
+    public enum TransportType {
+        KAFKA,
+        // Monitor'un /api/ingest endpoint'ine toplu POST
+        HTTP,
+        // Aynı JVM'deki monitor'a doğrudan, broker olmadan
+        IN_PROCESS
+    }
+    
+    public enum PartitionKey {
+        // Event id: record'lar partition'lara eşit dağılır
+        ID,
+        // Exception fingerprint: aynı hata her zaman aynı partition'a düşer
+        FINGERPRINT,
+        // projectName/componentName: bir component'in tüm event'leri aynı partition'a düşer
+        COMPONENT
+    }
+    
+    public enum LocalLogMode {
+        // Her event tam stack trace ile loglanır
+        FULL,
+        OFF,
+        // Fingerprint başına ilk event tam stack, sonrası aralık başına tek satır özet
+        FIRST_OCCURRENCE,
+        // Fingerprint başına aralık başına bir tam stack, arada bastırılanların sayısıyla
+        RATE_LIMITED
+    }
+    
+    public enum OverflowPolicy {
+        DROP_NEWEST,
+        DROP_OLDEST,
+        BLOCK
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.example.exception.handler.config;
+
+import com.example.exception.handler.dto.ExceptionDto;
+import com.example.exception.handler.dto.StackFrameDto;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Native image hints. The codec writes events field by field, but additional data,
+ * aggregated samples and consumers that bind ExceptionDto with an ObjectMapper still
+ * need its accessors at runtime.
+ */
+class ExceptionHandlerRuntimeHints implements RuntimeHintsRegistrar {
+    
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+            ExceptionDto.class, StackFrameDto.class);
+    }
+}
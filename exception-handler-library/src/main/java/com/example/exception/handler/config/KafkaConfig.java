@@ -2,7 +2,9 @@ package com.example.exception.handler.config;
 
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
@@ -12,26 +14,41 @@ import org.springframework.kafka.core.ProducerFactory;
 import java.util.HashMap;
 import java.util.Map;
 
-@Configuration
+// Producer ilk send'de oluşur (bkz. LazyKafkaSender); burada sadece ayarlar hazırlanır
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "exception.handler.transport", name = "type", havingValue = "kafka", matchIfMissing = true)
 @RequiredArgsConstructor
 public class KafkaConfig {
     
     private final ExceptionHandlerProperties properties;
     
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, byte[]> producerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, properties.getKafka().getBootstrapServers());
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.ACKS_CONFIG, "1");
-        props.put(ProducerConfig.RETRIES_CONFIG, 3);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        
+        ExceptionHandlerProperties.Producer producer = properties.getKafka().getProducer();
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, producer.isIdempotence());
+        props.put(ProducerConfig.ACKS_CONFIG, producer.isIdempotence() ? "all" : producer.getAcks());
+        props.put(ProducerConfig.RETRIES_CONFIG, producer.getRetries());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, (int) producer.getLinger().toMillis());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, producer.getBatchSize());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producer.getCompressionType());
+        // Idempotent producer sıralamayı en fazla 5 in-flight request ile garanti eder
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, producer.isIdempotence()
+            ? Math.min(5, producer.getMaxInFlightRequestsPerConnection())
+            : producer.getMaxInFlightRequestsPerConnection());
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, producer.getBufferMemory());
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, producer.getMaxBlock().toMillis());
+        props.putAll(producer.getProperties());
         
         return new DefaultKafkaProducerFactory<>(props);
     }
     
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, byte[]> kafkaTemplate(ProducerFactory<String, byte[]> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 }
\ No newline at end of file
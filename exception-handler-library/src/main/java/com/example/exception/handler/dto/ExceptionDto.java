@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Data
@@ -15,6 +16,7 @@ public class ExceptionDto {
     private String exceptionType;
     private String message;
     private String stackTrace;
+    private List<StackFrameDto> frames;
     private LocalDateTime timestamp;
     private String projectName;
     private String componentName;
@@ -28,4 +30,14 @@ public class ExceptionDto {
     private String userAgent;
     private String sessionId;
     private Map<String, Object> additionalData;
+    
+    // Aynı fingerprint'e sahip tekrarlar tek event'te toplanır
+    private String fingerprint;
+    private long occurrenceCount = 1;
+    private LocalDateTime firstSeen;
+    private LocalDateTime lastSeen;
+    private List<Map<String, Object>> samples;
+    
+    // occurrenceCount'a dahil, sampling/rate limit ile gönderilmeyen occurrence sayısı
+    private long sampledOutCount;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.exception.handler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StackFrameDto {
+    // 0 = exception'ın kendisi, 1 = ilk cause, ...
+    private int causeIndex;
+    private String className;
+    private String methodName;
+    private String fileName;
+    private int lineNumber;
+    private boolean inApp;
+    // Bu frame'den sonra gizlenen ardışık framework frame sayısı
+    private int collapsedFrames;
+}
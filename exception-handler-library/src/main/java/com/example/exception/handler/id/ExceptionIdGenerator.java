@@ -0,0 +1,10 @@
+package com.example.exception.handler.id;
+
+/**
+ * Produces the id of each reported event. The id is the monitor's primary key and, by
+ * default, the Kafka record key, so it must be unique across all producers.
+ */
+public interface ExceptionIdGenerator {
+    
+    String nextId();
+}
@@ -0,0 +1,12 @@
+package com.example.exception.handler.id;
+
+import java.util.UUID;
+
+// Eski davranış: SecureRandom tabanlı UUIDv4
+public class RandomUuidIdGenerator implements ExceptionIdGenerator {
+    
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.exception.handler.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * UUIDv7 (RFC 9562) ids: 48-bit Unix millis, then a 12-bit per-thread counter, then 62 random bits.
+ * State is per thread, so there is no lock or CAS. Ids from one thread are strictly increasing,
+ * and ids from different threads are ordered by millisecond. The canonical lowercase hex form
+ * sorts lexicographically in time order, which keeps primary key inserts at the right edge of
+ * the index.
+ */
+public class TimeOrderedIdGenerator implements ExceptionIdGenerator {
+    
+    private static final int COUNTER_BITS = 12;
+    private static final int COUNTER_MAX = (1 << COUNTER_BITS) - 1;
+    
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+    
+    @Override
+    public String nextId() {
+        return next().toString();
+    }
+    
+    public UUID next() {
+        State state = STATE.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        
+        long now = System.currentTimeMillis();
+        if (now > state.lastMillis) {
+            state.lastMillis = now;
+            // Sayaç rastgele bir noktadan başlar ama taşmaya yer kalsın diye alt yarıdan
+            state.counter = random.nextInt(COUNTER_MAX / 2);
+        } else if (state.counter < COUNTER_MAX) {
+            // Aynı ms (ya da saat geri gitti): sıra sayaçla korunur
+            state.counter++;
+        } else {
+            // Sayaç doldu, bir sonraki ms'i ödünç al
+            state.lastMillis++;
+            state.counter = 0;
+        }
+        
+        long msb = (state.lastMillis << 16) | (0x7L << 12) | state.counter;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+    
+    private static final class State {
+        private long lastMillis = -1;
+        private int counter;
+    }
+}
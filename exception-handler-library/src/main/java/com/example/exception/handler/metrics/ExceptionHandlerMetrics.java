@@ -0,0 +1,46 @@
+package com.example.exception.handler.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Measurement hooks on the reporting path. The library only depends on this interface;
+ * the Micrometer implementation is wired by the auto-configuration when a MeterRegistry exists.
+ */
+public interface ExceptionHandlerMetrics {
+    
+    ExceptionHandlerMetrics NOOP = new ExceptionHandlerMetrics() {
+    };
+    
+    enum Phase {
+        CAPTURE, SERIALIZE, SEND
+    }
+    
+    // handle()/handleWithHttpHeaders() içinde çağıran thread'in harcadığı toplam süre
+    default void recordHandle(long nanos) {
+    }
+    
+    default void recordPhase(Phase phase, long nanos) {
+    }
+    
+    default void recordPayloadSize(int bytes) {
+    }
+    
+    // send() çağrısından Kafka callback'ine kadar geçen süre
+    default void recordSendAck(long nanos, boolean success) {
+    }
+    
+    default void eventSent(String type, int count) {
+    }
+    
+    default void eventFailed(String type, int count) {
+    }
+    
+    default void eventDropped(String type) {
+    }
+    
+    default void eventSampled(String type) {
+    }
+    
+    default void bindGauge(String name, String description, Supplier<Number> value) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.exception.handler.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class MicrometerExceptionHandlerMetrics implements ExceptionHandlerMetrics {
+    
+    // Exception tipi tag'i için üst sınır, aşılınca "other" kullanılır
+    private static final int MAX_TYPES = 500;
+    private static final String OTHER_TYPE = "other";
+    
+    private final MeterRegistry registry;
+    private final Timer handleTimer;
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final DistributionSummary payloadSize;
+    private final Timer ackSuccess;
+    private final Timer ackFailure;
+    private final Map<String, Counter> sent = new ConcurrentHashMap<>();
+    private final Map<String, Counter> failed = new ConcurrentHashMap<>();
+    private final Map<String, Counter> dropped = new ConcurrentHashMap<>();
+    private final Map<String, Counter> sampled = new ConcurrentHashMap<>();
+    
+    public MicrometerExceptionHandlerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.handleTimer = Timer.builder("exception.handler.handle")
+            .description("Time spent on the calling thread in handle()")
+            .publishPercentileHistogram()
+            .register(registry);
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("exception.handler.phase")
+                .description("Time spent per reporting phase")
+                .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                .publishPercentileHistogram()
+                .register(registry));
+        }
+        this.payloadSize = DistributionSummary.builder("exception.handler.payload.size")
+            .description("Serialized Kafka record value size")
+            .baseUnit("bytes")
+            .publishPercentileHistogram()
+            .register(registry);
+        this.ackSuccess = ackTimer("success");
+        this.ackFailure = ackTimer("failure");
+    }
+    
+    @Override
+    public void recordHandle(long nanos) {
+        handleTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public void recordPhase(Phase phase, long nanos) {
+        phaseTimers.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public void recordPayloadSize(int bytes) {
+        payloadSize.record(bytes);
+    }
+    
+    @Override
+    public void recordSendAck(long nanos, boolean success) {
+        (success ? ackSuccess : ackFailure).record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public void eventSent(String type, int count) {
+        counter(sent, "sent", type).increment(count);
+    }
+    
+    @Override
+    public void eventFailed(String type, int count) {
+        counter(failed, "failed", type).increment(count);
+    }
+    
+    @Override
+    public void eventDropped(String type) {
+        counter(dropped, "dropped", type).increment();
+    }
+    
+    @Override
+    public void eventSampled(String type) {
+        counter(sampled, "sampled", type).increment();
+    }
+    
+    @Override
+    public void bindGauge(String name, String description, Supplier<Number> value) {
+        Gauge.builder(name, value)
+            .description(description)
+            .strongReference(true)
+            .register(registry);
+    }
+    
+    private Timer ackTimer(String outcome) {
+        return Timer.builder("exception.handler.send.ack")
+            .description("Time from Kafka send() to the producer callback")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+    
+    private Counter counter(Map<String, Counter> counters, String outcome, String type) {
+        String key = type != null ? type : OTHER_TYPE;
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        if (counters.size() >= MAX_TYPES) {
+            key = OTHER_TYPE;
+        }
+        return counters.computeIfAbsent(key, t -> Counter.builder("exception.handler.events")
+            .description("Reported exception events by outcome")
+            .tag("outcome", outcome)
+            .tag("type", t)
+            .register(registry));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.exception.handler.redaction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over case-insensitive ASCII keywords. Failure links are folded
+ * into a flat transition table ({@code state * 128 + char}) at build time, so matching
+ * costs one array lookup per character and never backtracks.
+ */
+final class KeywordAutomaton {
+    
+    private static final int ALPHABET = 128;
+    
+    private final int[] transitions;
+    // State'te biten en uzun keyword'ün index'i, yoksa -1
+    private final int[] matches;
+    private final String[] keywords;
+    
+    KeywordAutomaton(Collection<String> keywords) {
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> output = new ArrayList<>();
+        List<String> accepted = new ArrayList<>();
+        trie.add(newState());
+        output.add(-1);
+        
+        for (String keyword : keywords) {
+            String normalized = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+            if (normalized.isEmpty() || !isAscii(normalized)) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < normalized.length(); i++) {
+                char c = normalized.charAt(i);
+                if (trie.get(state)[c] < 0) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(newState());
+                    output.add(-1);
+                }
+                state = trie.get(state)[c];
+            }
+            if (output.get(state) < 0) {
+                output.set(state, accepted.size());
+                accepted.add(normalized);
+            }
+        }
+        
+        int[][] table = trie.toArray(new int[0][]);
+        this.matches = new int[table.length];
+        this.keywords = accepted.toArray(new String[0]);
+        int[] failure = new int[table.length];
+        for (int s = 0; s < matches.length; s++) {
+            matches[s] = output.get(s);
+        }
+        
+        // BFS: failure link'leri çöz, eksik geçişleri failure state'inkilerle doldur
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int child = table[0][c];
+            if (child > 0) {
+                failure[child] = 0;
+                queue.add(child);
+            } else {
+                table[0][c] = 0;
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            if (matches[state] < 0) {
+                matches[state] = matches[failure[state]];
+            }
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = table[state][c];
+                if (child > 0) {
+                    failure[child] = table[failure[state]][c];
+                    queue.add(child);
+                } else {
+                    table[state][c] = table[failure[state]][c];
+                }
+            }
+        }
+        
+        this.transitions = new int[table.length * ALPHABET];
+        for (int state = 0; state < table.length; state++) {
+            System.arraycopy(table[state], 0, transitions, state * ALPHABET, ALPHABET);
+        }
+    }
+    
+    boolean isEmpty() {
+        return keywords.length == 0;
+    }
+    
+    // ASCII dışı karakterler hiçbir keyword'ün parçası olamaz, baştan başlanır
+    int step(int state, char c) {
+        if (c >= ALPHABET) {
+            return 0;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            c = (char) (c + ('a' - 'A'));
+        }
+        return transitions[state * ALPHABET + c];
+    }
+    
+    boolean isMatch(int state) {
+        return matches[state] >= 0;
+    }
+    
+    // Bu state'te biten keyword, yoksa null
+    String match(int state) {
+        int index = matches[state];
+        return index >= 0 ? keywords[index] : null;
+    }
+    
+    boolean containsAny(CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            if (matches[state] >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static int[] newState() {
+        int[] state = new int[ALPHABET];
+        Arrays.fill(state, -1);
+        return state;
+    }
+    
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= ALPHABET) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
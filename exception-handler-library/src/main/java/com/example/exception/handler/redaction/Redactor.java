@@ -0,0 +1,273 @@
+package com.example.exception.handler.redaction;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Masks secrets in strings before they are serialized. Rules are compiled once from
+ * ExceptionHandlerProperties.Redaction into a single forward scanner: a keyword automaton
+ * finds {@code key=value} / {@code key: value} pairs, and card numbers (Luhn checked),
+ * e-mail addresses and JWTs are recognized at the same character position in that pass.
+ * Strings without a match are returned as-is, without copying.
+ * <p>
+ * Custom regex patterns are joined into one alternation and run as a second pass only
+ * when configured.
+ */
+public final class Redactor {
+    
+    // Kesilecek bir string'de sınırdan bu kadar ileri taranır, sınırdaki değer de yakalanır
+    public static final int LOOKAHEAD = 64;
+    
+    private static final String BEARER = "bearer";
+    
+    private final KeywordAutomaton keys;
+    private final boolean cardNumbers;
+    private final boolean emails;
+    private final boolean jwts;
+    private final Pattern patterns;
+    private final String mask;
+    
+    private Redactor(ExceptionHandlerProperties.Redaction config) {
+        this.keys = new KeywordAutomaton(config.getKeys());
+        this.cardNumbers = config.isCardNumbers();
+        this.emails = config.isEmails();
+        this.jwts = config.isJwts();
+        List<String> custom = config.getPatterns();
+        this.patterns = custom.isEmpty() ? null
+            : Pattern.compile(custom.stream().map(p -> "(?:" + p + ")").collect(Collectors.joining("|")));
+        this.mask = config.getMask();
+    }
+    
+    // Redaction kapalıysa null döner; çağıran taraf null kontrolüyle hiç taramaz
+    public static Redactor compile(ExceptionHandlerProperties.Redaction config) {
+        return config != null && config.isEnabled() ? new Redactor(config) : null;
+    }
+    
+    public String getMask() {
+        return mask;
+    }
+    
+    // additionalData key'i bir secret key'i içeriyorsa (örn. X-Auth-Token, user_password) değer maskelenir
+    public boolean isSensitiveKey(CharSequence key) {
+        return key != null && keys.containsAny(key);
+    }
+    
+    public String redact(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        String result = scan(value);
+        if (patterns != null) {
+            Matcher matcher = patterns.matcher(result);
+            if (matcher.find()) {
+                result = matcher.replaceAll(Matcher.quoteReplacement(mask));
+            }
+        }
+        return result;
+    }
+    
+    private String scan(String value) {
+        int length = value.length();
+        StringBuilder out = null;
+        int copied = 0;
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            int start = -1;
+            int end = -1;
+            
+            state = keys.step(state, c);
+            if (keys.isMatch(state)) {
+                start = valueStart(value, i + 1, BEARER.equals(keys.match(state)));
+                end = start >= 0 ? tokenEnd(value, start) : -1;
+            }
+            if (end <= start && cardNumbers && c >= '2' && c <= '6' && boundaryBefore(value, i)) {
+                start = i;
+                end = cardEnd(value, i);
+            }
+            if (end <= start && jwts && c == 'e' && value.startsWith("eyJ", i) && boundaryBefore(value, i)) {
+                start = i;
+                end = jwtEnd(value, i);
+            }
+            if (end <= start && emails && c == '@') {
+                start = emailStart(value, i, copied);
+                end = start < i ? emailEnd(value, i) : -1;
+            }
+            
+            if (start >= 0 && end > start) {
+                if (out == null) {
+                    out = new StringBuilder(length);
+                }
+                out.append(value, copied, start).append(mask);
+                copied = end;
+                i = end - 1;
+                state = 0;
+            }
+        }
+        if (out == null) {
+            return value;
+        }
+        return out.append(value, copied, length).toString();
+    }
+    
+    // key'den sonra ayırıcı (= ya da :) gelmiyorsa -1; "Bearer"/"Basic" şeması atlanır
+    private static int valueStart(String value, int from, boolean bearer) {
+        int length = value.length();
+        int i = from;
+        if (bearer) {
+            return i < length && value.charAt(i) == ' ' ? i + 1 : -1;
+        }
+        while (i < length && isQuoteOrSpace(value.charAt(i))) {
+            i++;
+        }
+        if (i >= length || (value.charAt(i) != '=' && value.charAt(i) != ':')) {
+            return -1;
+        }
+        i++;
+        while (i < length && isQuoteOrSpace(value.charAt(i))) {
+            i++;
+        }
+        if (value.regionMatches(true, i, "bearer ", 0, 7)) {
+            i += 7;
+        } else if (value.regionMatches(true, i, "basic ", 0, 6)) {
+            i += 6;
+        }
+        return i < length ? i : -1;
+    }
+    
+    private static int tokenEnd(String value, int start) {
+        int i = start;
+        while (i < value.length() && !isDelimiter(value.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+    
+    // 13-19 hane, aralarında tek boşluk ya da tire olabilir; Luhn tutmazsa -1
+    private static int cardEnd(String value, int start) {
+        int length = value.length();
+        int digits = 0;
+        int end = start;
+        int i = start;
+        while (i < length && digits < 20) {
+            char c = value.charAt(i);
+            if (isDigit(c)) {
+                digits++;
+                end = ++i;
+            } else if ((c == ' ' || c == '-') && i + 1 < length && isDigit(value.charAt(i + 1)) && i > start) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        if (digits < 13 || digits > 19 || (end < length && Character.isLetterOrDigit(value.charAt(end)))) {
+            return -1;
+        }
+        int sum = 0;
+        boolean doubled = false;
+        for (int j = end - 1; j >= start; j--) {
+            char c = value.charAt(j);
+            if (!isDigit(c)) {
+                continue;
+            }
+            int d = c - '0';
+            if (doubled) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0 ? end : -1;
+    }
+    
+    // header.payload[.signature], base64url segmentler
+    private static int jwtEnd(String value, int start) {
+        int i = start;
+        int dots = 0;
+        int segment = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (isBase64Url(c)) {
+                segment++;
+            } else if (c == '.' && segment > 0 && dots < 2) {
+                dots++;
+                segment = 0;
+            } else {
+                break;
+            }
+            i++;
+        }
+        // İmza segmenti kesilmiş olabilir; header + payload yeterli
+        return dots >= 1 && i - start >= 16 ? i : -1;
+    }
+    
+    // @'tan geriye local part başına kadar; daha önce kopyalanmış kısma geçilmez
+    private static int emailStart(String value, int at, int floor) {
+        int i = at;
+        while (i > floor && isEmailLocalChar(value.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+    
+    // Domain en az bir nokta ve harflerden oluşan bir TLD içermeli
+    private static int emailEnd(String value, int at) {
+        int i = at + 1;
+        int lastDot = -1;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c == '.' && i > at + 1 && i + 1 < value.length() && isDomainChar(value.charAt(i + 1))) {
+                lastDot = i;
+            } else if (!isDomainChar(c)) {
+                break;
+            }
+            i++;
+        }
+        if (lastDot < 0 || i - lastDot - 1 < 2) {
+            return -1;
+        }
+        for (int j = lastDot + 1; j < i; j++) {
+            if (!Character.isLetter(value.charAt(j))) {
+                return -1;
+            }
+        }
+        return i;
+    }
+    
+    private static boolean boundaryBefore(String value, int i) {
+        return i == 0 || !Character.isLetterOrDigit(value.charAt(i - 1));
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    private static boolean isBase64Url(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '-' || c == '_';
+    }
+    
+    private static boolean isEmailLocalChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c)
+            || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+    
+    private static boolean isDomainChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '-';
+    }
+    
+    private static boolean isQuoteOrSpace(char c) {
+        return c == ' ' || c == '"' || c == '\'';
+    }
+    
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '&' || c == ',' || c == ';' || c == '"' || c == '\''
+            || c == '}' || c == ')' || c == ']' || c == '<' || c == '>';
+    }
+}
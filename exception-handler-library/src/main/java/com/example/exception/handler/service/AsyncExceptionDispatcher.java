@@ -0,0 +1,142 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+public class AsyncExceptionDispatcher implements AutoCloseable {
+    
+    private static final long POLL_INTERVAL_MS = 100;
+    
+    private final ExceptionHandlerProperties.Async config;
+    private final BlockingQueue<CapturedException> queue;
+    private final Consumer<CapturedException> processor;
+    private final Consumer<CapturedException> dropListener;
+    private final List<Thread> workers = new ArrayList<>();
+    
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    
+    private volatile boolean running = true;
+    
+    public AsyncExceptionDispatcher(ExceptionHandlerProperties.Async config, Consumer<CapturedException> processor) {
+        this(config, processor, dropped -> { });
+    }
+    
+    public AsyncExceptionDispatcher(ExceptionHandlerProperties.Async config, Consumer<CapturedException> processor,
+                                    Consumer<CapturedException> dropListener) {
+        this.config = config;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.processor = processor;
+        this.dropListener = dropListener;
+        
+        int threads = Math.max(1, config.getWorkerThreads());
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::runWorker, "exception-handler-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+    
+    public void submit(CapturedException event) {
+        if (!running) {
+            drop(event);
+            return;
+        }
+        
+        submittedCount.incrementAndGet();
+        switch (config.getOverflowPolicy()) {
+            case DROP_OLDEST:
+                while (!queue.offer(event)) {
+                    CapturedException oldest = queue.poll();
+                    if (oldest != null) {
+                        drop(oldest);
+                    }
+                }
+                break;
+            case BLOCK:
+                try {
+                    if (!queue.offer(event, config.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                        drop(event);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop(event);
+                }
+                break;
+            case DROP_NEWEST:
+            default:
+                if (!queue.offer(event)) {
+                    drop(event);
+                }
+        }
+    }
+    
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+    
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+    
+    public int getQueueDepth() {
+        return queue.size();
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        long deadline = System.nanoTime() + config.getShutdownTimeout().toNanos();
+        for (Thread worker : workers) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                break;
+            }
+            try {
+                worker.join(remainingMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Exception handler shut down with {} queued events not sent", queue.size());
+        }
+    }
+    
+    private void drop(CapturedException event) {
+        dropListener.accept(event);
+        long dropped = droppedCount.incrementAndGet();
+        // Fırtına anında log'u da boğmamak için seyrek yaz
+        if (dropped == 1 || dropped % 1000 == 0) {
+            log.warn("Exception queue full (policy {}), dropped {} events so far",
+                config.getOverflowPolicy(), dropped);
+        }
+    }
+    
+    private void runWorker() {
+        while (running || !queue.isEmpty()) {
+            try {
+                CapturedException event = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    processor.accept(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error processing queued exception", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.exception.handler.service;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Everything that has to be read on the caller's thread (request attributes are
+ * thread-bound) so the rest of the reporting work can run elsewhere.
+ */
+@Data
+public class CapturedException {
+    private final Exception exception;
+    private final Map<String, Object> additionalData;
+    private final boolean withHttpHeaders;
+    private final LocalDateTime timestamp;
+    
+    // handle()'da bir kez alınan kök stack trace; sampling, fingerprint ve capture paylaşır
+    private StackTraceElement[] stackTrace;
+    
+    private String serviceName;
+    private String method;
+    private String url;
+    private String userAgent;
+    private String sessionId;
+    
+    // handleWithHttpHeaders ile toplanan header/parametre bilgileri, additionalData ile birleştirilmez
+    private Map<String, Object> requestData;
+    
+    // Bu event'ten önce sampling ile elenen aynı key'li occurrence sayısı
+    private long suppressedCount;
+    
+    // Çağıran thread'de capture için harcanan süre, DTO oluşturma süresiyle birlikte ölçülür
+    private long captureNanos;
+}
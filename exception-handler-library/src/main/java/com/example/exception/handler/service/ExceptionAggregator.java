@@ -0,0 +1,158 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.ExceptionDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collapses events with the same fingerprint inside a time window into a single
+ * event carrying occurrenceCount, firstSeen/lastSeen and a few sample contexts.
+ */
+@Slf4j
+public class ExceptionAggregator implements AutoCloseable {
+    
+    private final ExceptionHandlerProperties.Aggregation config;
+    private final Consumer<ExceptionDto> downstream;
+    private final Map<String, Aggregate> aggregates = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final long windowNanos;
+    
+    public ExceptionAggregator(ExceptionHandlerProperties.Aggregation config, Consumer<ExceptionDto> downstream) {
+        this.config = config;
+        this.downstream = downstream;
+        this.windowNanos = config.getWindow().toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "exception-handler-aggregator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        long flushIntervalMs = Math.max(100, Math.min(1000, config.getWindow().toMillis() / 2));
+        scheduler.scheduleWithFixedDelay(this::flushExpired, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    public void add(ExceptionDto dto) {
+        String fingerprint = dto.getFingerprint();
+        if (fingerprint == null
+                || (aggregates.size() >= config.getMaxEntries() && !aggregates.containsKey(fingerprint))) {
+            // Bellek sınırı aşıldı, aggregate etmeden gönder
+            emit(dto);
+            return;
+        }
+        
+        aggregates.compute(fingerprint, (key, aggregate) -> {
+            if (aggregate == null) {
+                return new Aggregate(dto, config.getMaxSamples());
+            }
+            aggregate.add(dto);
+            return aggregate;
+        });
+    }
+    
+    public int size() {
+        return aggregates.size();
+    }
+    
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        flush(true);
+    }
+    
+    private void flushExpired() {
+        try {
+            flush(false);
+        } catch (Exception e) {
+            log.error("Error flushing aggregated exceptions", e);
+        }
+    }
+    
+    private void flush(boolean all) {
+        long now = System.nanoTime();
+        for (String fingerprint : aggregates.keySet()) {
+            List<Aggregate> expired = new ArrayList<>(1);
+            // Silme compute içinde yapılır ki eşzamanlı add() ile yarışmasın
+            aggregates.computeIfPresent(fingerprint, (key, aggregate) -> {
+                if (all || now - aggregate.startedAt >= windowNanos) {
+                    expired.add(aggregate);
+                    return null;
+                }
+                return aggregate;
+            });
+            for (Aggregate aggregate : expired) {
+                emit(aggregate.toDto());
+            }
+        }
+    }
+    
+    private void emit(ExceptionDto dto) {
+        try {
+            downstream.accept(dto);
+        } catch (Exception e) {
+            log.error("Error sending aggregated exception {}", dto.getId(), e);
+        }
+    }
+    
+    private static final class Aggregate {
+        private final ExceptionDto first;
+        private final long startedAt = System.nanoTime();
+        private final int maxSamples;
+        private final List<Map<String, Object>> samples = new ArrayList<>();
+        private long count;
+        private long sampledOut;
+        private LocalDateTime lastSeen;
+        
+        Aggregate(ExceptionDto first, int maxSamples) {
+            this.first = first;
+            this.maxSamples = maxSamples;
+            this.count = first.getOccurrenceCount();
+            this.sampledOut = first.getSampledOutCount();
+            this.lastSeen = first.getTimestamp();
+            addSample(first);
+        }
+        
+        void add(ExceptionDto dto) {
+            count += dto.getOccurrenceCount();
+            sampledOut += dto.getSampledOutCount();
+            if (dto.getTimestamp() != null && (lastSeen == null || dto.getTimestamp().isAfter(lastSeen))) {
+                lastSeen = dto.getTimestamp();
+            }
+            addSample(dto);
+        }
+        
+        ExceptionDto toDto() {
+            first.setOccurrenceCount(count);
+            first.setSampledOutCount(sampledOut);
+            first.setFirstSeen(first.getTimestamp());
+            first.setLastSeen(lastSeen);
+            first.setSamples(samples);
+            return first;
+        }
+        
+        private void addSample(ExceptionDto dto) {
+            if (samples.size() >= maxSamples) {
+                return;
+            }
+            Map<String, Object> sample = new LinkedHashMap<>();
+            sample.put("id", dto.getId());
+            sample.put("timestamp", dto.getTimestamp() != null ? dto.getTimestamp().toString() : null);
+            sample.put("message", dto.getMessage());
+            sample.put("method", dto.getMethod());
+            sample.put("url", dto.getUrl());
+            sample.put("sessionId", dto.getSessionId());
+            sample.put("additionalData", dto.getAdditionalData());
+            samples.add(sample);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.codec.ExceptionDtoCodec;
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.ExceptionDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packs events into one {"events": [...]} Kafka record. Each event is encoded on the caller's
+ * thread outside the lock and only its finished bytes are appended to the open envelope for
+ * its record key, so an event that fails to encode costs only itself. An envelope is sent when
+ * it hits maxEvents/maxBytes or when the linger time passes. Events without a key share one envelope.
+ */
+@Slf4j
+public class ExceptionEnvelopeBatcher implements AutoCloseable {
+    
+    private final ExceptionHandlerProperties.Envelope config;
+    private final ExceptionDtoCodec codec;
+    private final EnvelopeSink downstream;
+    private final ScheduledExecutorService scheduler;
+    private final Object lock = new Object();
+    
+    // Açılış sırasına göre; en eski zarf başta
+    private final LinkedHashMap<String, OpenEnvelope> open = new LinkedHashMap<>();
+    
+    public ExceptionEnvelopeBatcher(ExceptionHandlerProperties.Envelope config, ExceptionDtoCodec codec,
+                                    EnvelopeSink downstream) {
+        this.config = config;
+        this.codec = codec;
+        this.downstream = downstream;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "exception-handler-envelope");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        long lingerMs = Math.max(10, config.getLinger().toMillis());
+        scheduler.scheduleWithFixedDelay(this::flushExpired, lingerMs, lingerMs, TimeUnit.MILLISECONDS);
+    }
+    
+    // Encode hatası çağırana fırlar; zarf ve içindeki event'ler etkilenmez
+    public void add(String key, ExceptionDto dto) throws IOException {
+        byte[] member = codec.encodeEnvelopeMember(dto);
+        List<FinishedEnvelope> finished = new ArrayList<>(2);
+        synchronized (lock) {
+            OpenEnvelope envelope = open.get(key);
+            if (envelope == null) {
+                // Çok sayıda farklı key varsa en eski zarf erken gönderilir, açık zarf sayısı sınırlı kalır
+                if (open.size() >= Math.max(1, config.getMaxOpenEnvelopes())) {
+                    Iterator<Map.Entry<String, OpenEnvelope>> eldest = open.entrySet().iterator();
+                    Map.Entry<String, OpenEnvelope> entry = eldest.next();
+                    eldest.remove();
+                    finish(entry.getKey(), entry.getValue(), finished);
+                }
+                envelope = new OpenEnvelope(codec.openEnvelope());
+                open.put(key, envelope);
+            }
+            envelope.envelope.append(member);
+            if (envelope.envelope.count() >= config.getMaxEvents() || envelope.envelope.byteSize() >= config.getMaxBytes()) {
+                open.remove(key);
+                finish(key, envelope, finished);
+            }
+        }
+        // Kafka'ya gönderim lock dışında
+        emit(finished);
+    }
+    
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        flush(true);
+    }
+    
+    private void flushExpired() {
+        try {
+            flush(false);
+        } catch (Exception e) {
+            log.error("Error flushing exception envelope", e);
+        }
+    }
+    
+    private void flush(boolean all) {
+        List<FinishedEnvelope> finished = new ArrayList<>();
+        synchronized (lock) {
+            long now = System.nanoTime();
+            long lingerNanos = config.getLinger().toNanos();
+            Iterator<Map.Entry<String, OpenEnvelope>> it = open.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, OpenEnvelope> entry = it.next();
+                // Sıra açılış zamanına göre, ilk taze zarfta durulabilir
+                if (!all && now - entry.getValue().openedAt < lingerNanos) {
+                    break;
+                }
+                it.remove();
+                finish(entry.getKey(), entry.getValue(), finished);
+            }
+        }
+        emit(finished);
+    }
+    
+    private void finish(String key, OpenEnvelope envelope, List<FinishedEnvelope> finished) {
+        finished.add(new FinishedEnvelope(key, envelope.envelope.finish(), envelope.envelope.count()));
+    }
+    
+    private void emit(List<FinishedEnvelope> finished) {
+        for (FinishedEnvelope envelope : finished) {
+            try {
+                downstream.send(envelope.key, envelope.payload, envelope.count);
+            } catch (Exception e) {
+                log.error("Error sending exception envelope with {} events", envelope.count, e);
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    public interface EnvelopeSink {
+        void send(String key, byte[] payload, int eventCount);
+    }
+    
+    private static final class OpenEnvelope {
+        private final ExceptionDtoCodec.Envelope envelope;
+        private final long openedAt = System.nanoTime();
+        
+        private OpenEnvelope(ExceptionDtoCodec.Envelope envelope) {
+            this.envelope = envelope;
+        }
+    }
+    
+    private static final class FinishedEnvelope {
+        private final String key;
+        private final byte[] payload;
+        private final int count;
+        
+        private FinishedEnvelope(String key, byte[] payload, int count) {
+            this.key = key;
+            this.payload = payload;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+
+/**
+ * Stable 64-bit fingerprint of exception type + top frames + normalized message.
+ * Hashes on the fly (FNV-1a) so no intermediate strings are built.
+ */
+public class ExceptionFingerprinter {
+    
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private final ExceptionHandlerProperties.Fingerprint config;
+    
+    public ExceptionFingerprinter(ExceptionHandlerProperties.Fingerprint config) {
+        this.config = config;
+    }
+    
+    public String fingerprint(Throwable throwable) {
+        return fingerprint(throwable, throwable.getStackTrace());
+    }
+    
+    public String fingerprint(Throwable throwable, StackTraceElement[] frames) {
+        long hash = FNV_OFFSET;
+        hash = hash(hash, throwable.getClass().getName());
+        
+        int limit = Math.min(frames.length, config.getFrameCount());
+        for (int i = 0; i < limit; i++) {
+            hash = hash(hash, frames[i].getClassName());
+            hash = hash(hash, frames[i].getMethodName());
+        }
+        
+        String message = throwable.getMessage();
+        if (message != null) {
+            hash = config.isNormalizeMessage() ? hashNormalized(hash, message) : hash(hash, message);
+        }
+        
+        return toHex(hash);
+    }
+    
+    private static long hash(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // Alanlar arasında ayraç, "ab"+"c" ile "a"+"bc" aynı olmasın
+        return (hash ^ 0x1F) * FNV_PRIME;
+    }
+    
+    // Rakam içeren token'lar (id, sayı, UUID parçası) tek bir '#' olarak sayılır
+    private static long hashNormalized(long hash, String message) {
+        int length = message.length();
+        int i = 0;
+        while (i < length) {
+            char c = message.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                hash = (hash ^ c) * FNV_PRIME;
+                i++;
+                continue;
+            }
+            
+            int start = i;
+            boolean hasDigit = false;
+            while (i < length && (Character.isLetterOrDigit(message.charAt(i)) || message.charAt(i) == '_')) {
+                hasDigit |= Character.isDigit(message.charAt(i));
+                i++;
+            }
+            if (hasDigit) {
+                hash = (hash ^ '#') * FNV_PRIME;
+            } else {
+                for (int j = start; j < i; j++) {
+                    hash = (hash ^ message.charAt(j)) * FNV_PRIME;
+                }
+            }
+        }
+        return (hash ^ 0x1F) * FNV_PRIME;
+    }
+    
+    private static String toHex(long hash) {
+        String hex = Long.toHexString(hash);
+        return hex.length() == 16 ? hex : "0000000000000000".substring(hex.length()) + hex;
+    }
+}
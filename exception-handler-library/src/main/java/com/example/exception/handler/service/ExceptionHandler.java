@@ -1,32 +1,131 @@
 package com.example.exception.handler.service;
 
+import com.example.exception.handler.codec.ExceptionDtoCodec;
+import com.example.exception.handler.codec.ExceptionDtoWriter;
+import com.example.exception.handler.codec.StaticMetadata;
+import com.example.exception.handler.codec.WireFormat;
 import com.example.exception.handler.config.ExceptionHandlerProperties;
 import com.example.exception.handler.dto.ExceptionDto;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.example.exception.handler.id.ExceptionIdGenerator;
+import com.example.exception.handler.id.TimeOrderedIdGenerator;
+import com.example.exception.handler.metrics.ExceptionHandlerMetrics;
+import com.example.exception.handler.redaction.Redactor;
+import com.example.exception.handler.transport.ExceptionTransport;
+import com.example.exception.handler.transport.KafkaExceptionTransport;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
-public class ExceptionHandler {
+public class ExceptionHandler implements DisposableBean {
     
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    // Zarf içindeki event'ler tek tek değil zarf olarak sayılır
+    private static final String ENVELOPE_METRIC_TYPE = "envelope";
+    
+    private final ExceptionTransport transport;
+    // Handler'ın kendi oluşturduğu transport; bean olarak verilenleri Spring kapatır
+    private final boolean ownsTransport;
+    private final KafkaExceptionTransport kafkaTransport;
     private final ExceptionHandlerProperties properties;
-    private final ObjectMapper objectMapper;
+    private final ExceptionDtoCodec codec;
+    private final AsyncExceptionDispatcher dispatcher;
+    private final ExceptionFingerprinter fingerprinter;
+    private final ExceptionAggregator aggregator;
+    private final ExceptionEnvelopeBatcher envelopeBatcher;
+    private final ExceptionSampler sampler;
+    private final StackTraceCapture stackTraceCapture;
+    private final HttpCapturePolicy httpCapturePolicy;
+    private final LocalLogPolicy localLogPolicy;
+    private final ExceptionIdGenerator idGenerator;
+    private final ExceptionHandlerMetrics metrics;
+    private final ExceptionHandlerProperties.PartitionKey partitionKey;
+    private final String componentKey;
+    
+    public ExceptionHandler(KafkaTemplate<String, byte[]> kafkaTemplate,
+                            ExceptionHandlerProperties properties,
+                            ObjectMapper objectMapper) {
+        this(kafkaTemplate, properties, objectMapper, new TimeOrderedIdGenerator(), ExceptionHandlerMetrics.NOOP);
+    }
+    
+    public ExceptionHandler(KafkaTemplate<String, byte[]> kafkaTemplate,
+                            ExceptionHandlerProperties properties,
+                            ObjectMapper objectMapper,
+                            ExceptionIdGenerator idGenerator,
+                            ExceptionHandlerMetrics metrics) {
+        this(new KafkaExceptionTransport(kafkaTemplate, properties != null ? properties : new ExceptionHandlerProperties()),
+            true, properties, objectMapper, idGenerator, metrics);
+    }
+    
+    @Autowired
+    public ExceptionHandler(ExceptionTransport transport,
+                            ExceptionHandlerProperties properties,
+                            ObjectMapper objectMapper,
+                            ExceptionIdGenerator idGenerator,
+                            ExceptionHandlerMetrics metrics) {
+        this(transport, false, properties, objectMapper, idGenerator, metrics);
+    }
+    
+    private ExceptionHandler(ExceptionTransport transport,
+                             boolean ownsTransport,
+                             ExceptionHandlerProperties properties,
+                             ObjectMapper objectMapper,
+                             ExceptionIdGenerator idGenerator,
+                             ExceptionHandlerMetrics metrics) {
+        this.transport = transport;
+        this.ownsTransport = ownsTransport;
+        this.kafkaTransport = transport instanceof KafkaExceptionTransport ? (KafkaExceptionTransport) transport : null;
+        this.idGenerator = idGenerator;
+        this.metrics = metrics;
+        this.properties = properties;
+        this.partitionKey = properties != null
+            ? properties.getKafka().getPartitionKey() : ExceptionHandlerProperties.PartitionKey.ID;
+        this.componentKey = properties != null
+            ? properties.getProjectName() + "/" + properties.getComponentName() : null;
+        this.codec = properties != null
+            ? new ExceptionDtoCodec(objectMapper, properties.getKafka().getWireFormat(),
+                new ExceptionDtoWriter(StaticMetadata.from(properties), properties.getLimits(),
+                    Redactor.compile(properties.getRedaction())))
+            : new ExceptionDtoCodec(objectMapper, WireFormat.JSON);
+        this.fingerprinter = new ExceptionFingerprinter(properties != null
+            ? properties.getFingerprint() : new ExceptionHandlerProperties.Fingerprint());
+        this.stackTraceCapture = new StackTraceCapture(properties != null
+            ? properties.getStackTrace() : new ExceptionHandlerProperties.StackTrace());
+        this.httpCapturePolicy = HttpCapturePolicy.compile(properties != null
+            ? properties.getHttpCapture() : new ExceptionHandlerProperties.HttpCapture());
+        this.localLogPolicy = new LocalLogPolicy(properties != null
+            ? properties.getLocalLog() : new ExceptionHandlerProperties.LocalLog(), log);
+        this.sampler = properties != null && properties.getSampling().isEnabled()
+            ? new ExceptionSampler(properties.getSampling(), properties.getEnvironment())
+            : null;
+        this.envelopeBatcher = properties != null && properties.getKafka().getEnvelope().isEnabled()
+            ? new ExceptionEnvelopeBatcher(properties.getKafka().getEnvelope(), codec, this::sendEnvelope)
+            : null;
+        this.aggregator = properties != null && properties.getAggregation().isEnabled()
+            ? new ExceptionAggregator(properties.getAggregation(), this::publish)
+            : null;
+        this.dispatcher = properties != null && properties.getAsync().isEnabled()
+            ? new AsyncExceptionDispatcher(properties.getAsync(), this::process,
+                dropped -> metrics.eventDropped(dropped.getException().getClass().getSimpleName()))
+            : null;
+        
+        metrics.bindGauge("exception.handler.queue.depth", "Events waiting in the async queue", this::getQueueDepth);
+        metrics.bindGauge("exception.handler.spool.size", "Events waiting in the local spool", this::getSpooledCount);
+    }
     
     public void handle(Exception exception) {
         handle(exception, null);
@@ -38,21 +137,26 @@ public class ExceptionHandler {
             return;
         }
         
+        long start = System.nanoTime();
+        // getStackTrace() her çağrıda diziyi kopyalar; sampling, fingerprint ve capture aynı diziyi kullanır
+        StackTraceElement[] stackTrace = exception.getStackTrace();
+        // Event id, rendered trace vs. hiçbir maliyet ödenmeden önce karar ver
+        long suppressed = sampler != null ? sampler.tryAcquire(exception, stackTrace) : 0;
+        if (suppressed == ExceptionSampler.REJECTED) {
+            metrics.eventSampled(exception.getClass().getSimpleName());
+            metrics.recordHandle(System.nanoTime() - start);
+            return;
+        }
+        
         try {
-            ExceptionDto dto = createExceptionDto(exception, additionalData);
-            
-            // Kafka'ya gönder
-            String jsonDto = objectMapper.writeValueAsString(dto);
-            kafkaTemplate.send(properties.getKafka().getTopic(), dto.getId(), jsonDto);
+            CapturedException captured = capture(exception, stackTrace, additionalData, false, suppressed);
+            captured.setCaptureNanos(System.nanoTime() - start);
             
-            // Loga yaz
-            log.error("Exception handled and sent to Kafka: {} - {}", 
-                dto.getExceptionType(), dto.getMessage(), exception);
-                
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing exception DTO", e);
+            dispatch(captured);
         } catch (Exception e) {
             log.error("Error handling exception", e);
+        } finally {
+            metrics.recordHandle(System.nanoTime() - start);
         }
     }
     
@@ -66,48 +170,162 @@ public class ExceptionHandler {
             return;
         }
         
+        long start = System.nanoTime();
+        StackTraceElement[] stackTrace = exception.getStackTrace();
+        long suppressed = sampler != null ? sampler.tryAcquire(exception, stackTrace) : 0;
+        if (suppressed == ExceptionSampler.REJECTED) {
+            metrics.eventSampled(exception.getClass().getSimpleName());
+            metrics.recordHandle(System.nanoTime() - start);
+            return;
+        }
+        
         try {
-            // HTTP headers'ı otomatik olarak additional data'ya ekle
-            Map<String, Object> enhancedData = enhanceWithHttpHeaders(additionalData);
+            CapturedException captured = capture(exception, stackTrace, additionalData, true, suppressed);
+            // HTTP headers ayrı tutulur, kullanıcının map'iyle birleştirilmez
+            captured.setRequestData(captureRequestData());
+            captured.setCaptureNanos(System.nanoTime() - start);
             
-            ExceptionDto dto = createExceptionDto(exception, enhancedData);
+            dispatch(captured);
+        } catch (Exception e) {
+            log.error("Error handling exception", e);
+        } finally {
+            metrics.recordHandle(System.nanoTime() - start);
+        }
+    }
+    
+    public long getDroppedCount() {
+        return dispatcher != null ? dispatcher.getDroppedCount() : 0;
+    }
+    
+    public long getSampledOutCount() {
+        return sampler != null ? sampler.getSampledOutCount() : 0;
+    }
+    
+    public int getQueueDepth() {
+        return dispatcher != null ? dispatcher.getQueueDepth() : 0;
+    }
+    
+    public long getSpooledCount() {
+        return kafkaTransport != null ? kafkaTransport.getSpooledCount() : 0;
+    }
+    
+    public long getSpoolDroppedCount() {
+        return kafkaTransport != null ? kafkaTransport.getSpoolDroppedCount() : 0;
+    }
+    
+    @Override
+    public void destroy() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+        // Kuyruktan boşalanlar aggregator'a, oradan zarflara düşer; bu sırayla flush edilir
+        if (aggregator != null) {
+            aggregator.close();
+        }
+        if (envelopeBatcher != null) {
+            envelopeBatcher.close();
+        }
+        if (ownsTransport) {
+            transport.close();
+        }
+        localLogPolicy.close();
+    }
+    
+    private void dispatch(CapturedException captured) {
+        if (dispatcher != null) {
+            dispatcher.submit(captured);
+        } else {
+            process(captured);
+        }
+    }
+    
+    // Async modda worker thread'de, sync modda çağıran thread'de çalışır
+    void process(CapturedException captured) {
+        try {
+            long start = System.nanoTime();
+            ExceptionDto dto = createExceptionDto(captured);
+            metrics.recordPhase(ExceptionHandlerMetrics.Phase.CAPTURE, captured.getCaptureNanos() + System.nanoTime() - start);
             
-            // Kafka'ya gönder
-            String jsonDto = objectMapper.writeValueAsString(dto);
-            kafkaTemplate.send(properties.getKafka().getTopic(), dto.getId(), jsonDto);
+            // Loga yaz (policy'e göre tam, özet ya da hiç)
+            localLogPolicy.log(dto, captured.getException(), captured.isWithHttpHeaders());
             
-            // Loga yaz
-            log.error("Exception handled with HTTP headers and sent to Kafka: {} - {}", 
-                dto.getExceptionType(), dto.getMessage(), exception);
-                
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing exception DTO", e);
+            if (aggregator != null) {
+                aggregator.add(dto);
+            } else {
+                publish(dto);
+            }
         } catch (Exception e) {
             log.error("Error handling exception", e);
         }
     }
     
-    private ExceptionDto createExceptionDto(Exception exception, Map<String, Object> additionalData) {
-        if (exception == null) {
-            throw new IllegalArgumentException("Exception cannot be null");
+    private void publish(ExceptionDto dto) {
+        long start = System.nanoTime();
+        try {
+            if (envelopeBatcher != null) {
+                // ID modunda zarfın tek bir key'i olamaz, key'siz gider
+                envelopeBatcher.add(partitionKey == ExceptionHandlerProperties.PartitionKey.ID ? null : recordKey(dto), dto);
+                metrics.recordPhase(ExceptionHandlerMetrics.Phase.SERIALIZE, System.nanoTime() - start);
+                return;
+            }
+            // Transport üzerinden gönder
+            byte[] payload = codec.encode(dto);
+            metrics.recordPhase(ExceptionHandlerMetrics.Phase.SERIALIZE, System.nanoTime() - start);
+            send(recordKey(dto), payload, codec.headers(), dto.getExceptionType(), 1);
+        } catch (IOException e) {
+            metrics.eventFailed(dto.getExceptionType(), 1);
+            log.error("Error serializing exception DTO", e);
+        } catch (Exception e) {
+            metrics.eventFailed(dto.getExceptionType(), 1);
+            log.error("Error sending exception {}", dto.getId(), e);
         }
+    }
+    
+    private String recordKey(ExceptionDto dto) {
+        switch (partitionKey) {
+            case FINGERPRINT:
+                return dto.getFingerprint() != null ? dto.getFingerprint() : dto.getId();
+            case COMPONENT:
+                return componentKey;
+            default:
+                return dto.getId();
+        }
+    }
+    
+    private void sendEnvelope(String key, byte[] payload, int eventCount) {
+        // Key null ise producer zarfları partition'lara yayar
+        send(key, payload, codec.envelopeHeaders(eventCount), ENVELOPE_METRIC_TYPE, eventCount);
+    }
+    
+    private void send(String key, byte[] payload, Headers headers, String type, int eventCount) {
+        metrics.recordPayloadSize(payload.length);
+        long start = System.nanoTime();
+        CompletableFuture<?> result = transport.send(key, payload, headers);
+        metrics.recordPhase(ExceptionHandlerMetrics.Phase.SEND, System.nanoTime() - start);
         
-        ExceptionDto dto = new ExceptionDto();
-        dto.setId(UUID.randomUUID().toString());
-        dto.setExceptionType(exception.getClass().getSimpleName());
-        dto.setMessage(exception.getMessage() != null ? exception.getMessage() : "No message available");
-        dto.setStackTrace(getStackTrace(exception));
-        dto.setTimestamp(LocalDateTime.now());
-        
-        // Configuration'dan gelen değerler
-        if (properties != null) {
-            dto.setProjectName(properties.getProjectName());
-            dto.setComponentName(properties.getComponentName());
-            dto.setPodName(properties.getPodName());
-            dto.setPodIp(properties.getPodIp());
-            dto.setClusterName(properties.getClusterName());
-            dto.setEnvironment(properties.getEnvironment());
+        // Spool'a yazılanlar replay sırasında gönderilir, burada sayılmaz
+        if (result != null) {
+            result.whenComplete((sent, ex) -> {
+                metrics.recordSendAck(System.nanoTime() - start, ex == null);
+                if (ex == null) {
+                    metrics.eventSent(type, eventCount);
+                } else {
+                    metrics.eventFailed(type, eventCount);
+                }
+            });
         }
+    }
+    
+    // Request context thread'e bağlı olduğu için her zaman çağıran thread'de çalışır
+    private CapturedException capture(Exception exception, StackTraceElement[] stackTrace, Map<String, Object> additionalData,
+                                      boolean withHttpHeaders, long suppressedCount) {
+        // Event çağıran thread'den çıkacaksa çağıran map'i handle() döndükten sonra değiştirebilir; sığ kopya alınır
+        if (additionalData != null && !additionalData.isEmpty() && leavesCallerThread()) {
+            additionalData = new LinkedHashMap<>(additionalData);
+        }
+        CapturedException captured = new CapturedException(exception, additionalData, withHttpHeaders, LocalDateTime.now());
+        captured.setStackTrace(stackTrace);
+        captured.setSuppressedCount(suppressedCount);
         
         // HTTP request bilgileri (varsa)
         try {
@@ -115,17 +333,17 @@ public class ExceptionHandler {
             if (attr != null) {
                 HttpServletRequest request = attr.getRequest();
                 if (request != null) {
-                    dto.setServiceName(request.getServletPath());
-                    dto.setMethod(request.getMethod());
+                    captured.setServiceName(request.getServletPath());
+                    captured.setMethod(request.getMethod());
                     
                     if (request.getRequestURL() != null) {
-                        dto.setUrl(request.getRequestURL().toString());
+                        captured.setUrl(request.getRequestURL().toString());
                     }
                     
-                    dto.setUserAgent(request.getHeader("User-Agent"));
+                    captured.setUserAgent(request.getHeader("User-Agent"));
                     
                     if (request.getSession(false) != null) {
-                        dto.setSessionId(request.getSession(false).getId());
+                        captured.setSessionId(request.getSession(false).getId());
                     }
                 }
             }
@@ -135,107 +353,80 @@ public class ExceptionHandler {
             log.debug("No request context available");
         }
         
-        dto.setAdditionalData(additionalData != null ? additionalData : new HashMap<>());
+        return captured;
+    }
+    
+    private ExceptionDto createExceptionDto(CapturedException captured) {
+        Exception exception = captured.getException();
+        if (exception == null) {
+            throw new IllegalArgumentException("Exception cannot be null");
+        }
+        
+        ExceptionDto dto = new ExceptionDto();
+        dto.setId(idGenerator.nextId());
+        dto.setExceptionType(exception.getClass().getSimpleName());
+        dto.setMessage(exception.getMessage() != null ? exception.getMessage() : "No message available");
+        
+        StackTraceCapture.CapturedStack stack = captureStack(exception, captured.getStackTrace());
+        dto.setStackTrace(stack.getRendered());
+        dto.setFrames(stack.getFrames());
+        dto.setTimestamp(captured.getTimestamp());
+        dto.setFingerprint(fingerprinter.fingerprint(exception, captured.getStackTrace()));
+        // Elenen occurrence'lar bu event üzerinden sayılır, monitor toplamları doğru kalır
+        dto.setOccurrenceCount(1 + captured.getSuppressedCount());
+        dto.setSampledOutCount(captured.getSuppressedCount());
+        
+        // Configuration'dan gelen değerler
+        if (properties != null) {
+            dto.setProjectName(properties.getProjectName());
+            dto.setComponentName(properties.getComponentName());
+            dto.setPodName(properties.getPodName());
+            dto.setPodIp(properties.getPodIp());
+            dto.setClusterName(properties.getClusterName());
+            dto.setEnvironment(properties.getEnvironment());
+        }
+        
+        dto.setServiceName(captured.getServiceName());
+        dto.setMethod(captured.getMethod());
+        dto.setUrl(captured.getUrl());
+        dto.setUserAgent(captured.getUserAgent());
+        dto.setSessionId(captured.getSessionId());
+        
+        Map<String, Object> additionalData = MergedDataMap.of(captured.getRequestData(), captured.getAdditionalData());
+        dto.setAdditionalData(additionalData != null ? additionalData : Map.of());
         
         return dto;
     }
     
-    private Map<String, Object> enhanceWithHttpHeaders(Map<String, Object> existingData) {
-        Map<String, Object> enhancedData = existingData != null ? new HashMap<>(existingData) : new HashMap<>();
-        
+    private Map<String, Object> captureRequestData() {
         try {
             ServletRequestAttributes attr = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
-            if (attr == null) {
-                log.debug("No request attributes available");
-                return enhancedData;
-            }
-            
-            HttpServletRequest request = attr.getRequest();
+            HttpServletRequest request = attr != null ? attr.getRequest() : null;
             if (request == null) {
                 log.debug("No HTTP request available");
-                return enhancedData;
-            }
-            
-            // HTTP Headers'ı additional data'ya ekle
-            Map<String, Object> httpHeaders = new HashMap<>();
-            
-            // Yaygın header'ları ekle
-            addHeaderIfPresent(httpHeaders, request, "Accept");
-            addHeaderIfPresent(httpHeaders, request, "Accept-Language");
-            addHeaderIfPresent(httpHeaders, request, "Accept-Encoding");
-            addHeaderIfPresent(httpHeaders, request, "Content-Type");
-            addHeaderIfPresent(httpHeaders, request, "Content-Length");
-            addHeaderIfPresent(httpHeaders, request, "Authorization");
-            addHeaderIfPresent(httpHeaders, request, "X-Forwarded-For");
-            addHeaderIfPresent(httpHeaders, request, "X-Real-IP");
-            addHeaderIfPresent(httpHeaders, request, "X-Forwarded-Proto");
-            addHeaderIfPresent(httpHeaders, request, "Origin");
-            addHeaderIfPresent(httpHeaders, request, "Referer");
-            addHeaderIfPresent(httpHeaders, request, "Host");
-            addHeaderIfPresent(httpHeaders, request, "Connection");
-            addHeaderIfPresent(httpHeaders, request, "Cache-Control");
-            
-            // Custom header'ları ekle (X- ile başlayan)
-            request.getHeaderNames().asIterator().forEachRemaining(headerName -> {
-                if (headerName.toLowerCase().startsWith("x-") && 
-                    !httpHeaders.containsKey(headerName)) {
-                    addHeaderIfPresent(httpHeaders, request, headerName);
-                }
-            });
-            
-            enhancedData.put("httpHeaders", httpHeaders);
-            
-            // Request parametreleri
-            if (request.getParameterMap() != null && !request.getParameterMap().isEmpty()) {
-                enhancedData.put("requestParameters", new HashMap<>(request.getParameterMap()));
-            }
-            
-            // Remote address bilgileri
-            if (request.getRemoteAddr() != null) {
-                enhancedData.put("remoteAddress", request.getRemoteAddr());
+                return null;
             }
-            if (request.getRemoteHost() != null) {
-                enhancedData.put("remoteHost", request.getRemoteHost());
-            }
-            enhancedData.put("remotePort", request.getRemotePort());
             
+            // Container request bitince parametre map'ini temizler; event request'ten uzun yaşayacaksa kopyalanır
+            return httpCapturePolicy.capture(request, leavesCallerThread());
         } catch (IllegalStateException e) {
             // Request context yok, web dışı bir ortam
             log.debug("No HTTP request context available for header extraction");
+            return null;
         }
-        
-        return enhancedData;
     }
     
-    private void addHeaderIfPresent(Map<String, Object> headers, HttpServletRequest request, String headerName) {
-        if (headers == null || request == null || headerName == null) {
-            return;
-        }
-        
-        String headerValue = request.getHeader(headerName);
-        if (headerValue != null && !headerValue.trim().isEmpty()) {
-            // Authorization header'ı güvenlik için mask'le
-            if ("Authorization".equalsIgnoreCase(headerName)) {
-                headers.put(headerName, "***MASKED***");
-            } else {
-                headers.put(headerName, headerValue);
-            }
-        }
+    // Async kuyruk ya da aggregation penceresi: DTO çağıran thread döndükten sonra serialize edilir
+    private boolean leavesCallerThread() {
+        return dispatcher != null || aggregator != null;
     }
     
-    private String getStackTrace(Exception exception) {
-        if (exception == null) {
-            return "No stack trace available - exception was null";
-        }
-        
+    private StackTraceCapture.CapturedStack captureStack(Exception exception, StackTraceElement[] stackTrace) {
         try {
-            StringWriter sw = new StringWriter();
-            PrintWriter pw = new PrintWriter(sw);
-            exception.printStackTrace(pw);
-            return sw.toString();
+            return stackTraceCapture.capture(exception, stackTrace);
         } catch (Exception e) {
             log.error("Error getting stack trace", e);
-            return "Error retrieving stack trace: " + e.getMessage();
+            return new StackTraceCapture.CapturedStack(List.of(), "Error retrieving stack trace: " + e.getMessage());
         }
     }
 }
\ No newline at end of file
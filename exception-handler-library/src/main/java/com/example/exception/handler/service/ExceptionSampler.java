@@ -0,0 +1,134 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hot-path admission check run before any capture work. Combines a per-type/per-environment
+ * sampling rate with a lock-free token bucket (GCRA on a single AtomicLong) keyed by
+ * exception class and throwing frame.
+ */
+public class ExceptionSampler {
+    
+    public static final long REJECTED = -1;
+    
+    private final ExceptionHandlerProperties.Sampling config;
+    private final double environmentRate;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Map<Key, KeyState> states = new ConcurrentHashMap<>();
+    private final KeyState overflowState;
+    private final LongAdder sampledOutCount = new LongAdder();
+    
+    private final ClassValue<Double> typeRates = new ClassValue<>() {
+        @Override
+        protected Double computeValue(Class<?> type) {
+            return resolveTypeRate(type);
+        }
+    };
+    
+    public ExceptionSampler(ExceptionHandlerProperties.Sampling config, String environment) {
+        this.config = config;
+        this.environmentRate = environment != null
+            ? config.getEnvironmentRates().getOrDefault(environment, 1.0)
+            : 1.0;
+        this.emissionIntervalNanos = config.getMaxEventsPerSecond() > 0
+            ? (long) (1_000_000_000L / config.getMaxEventsPerSecond())
+            : 0;
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(1, config.getBurst());
+        this.overflowState = new KeyState(System.nanoTime());
+    }
+    
+    /**
+     * @return {@link #REJECTED} if the event must not be reported, otherwise the number of
+     *         occurrences of the same key suppressed since the last reported one
+     */
+    public long tryAcquire(Throwable throwable, StackTraceElement[] frames) {
+        KeyState state = stateFor(throwable, frames);
+        
+        double rate = typeRates.get(throwable.getClass()) * environmentRate;
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            return reject(state);
+        }
+        if (emissionIntervalNanos > 0 && !state.tryAcquire(emissionIntervalNanos, burstToleranceNanos)) {
+            return reject(state);
+        }
+        return state.suppressed.getAndSet(0);
+    }
+    
+    public long getSampledOutCount() {
+        return sampledOutCount.sum();
+    }
+    
+    private long reject(KeyState state) {
+        state.suppressed.incrementAndGet();
+        sampledOutCount.increment();
+        return REJECTED;
+    }
+    
+    // frames: çağıranın bir kez aldığı getStackTrace() sonucu; her çağrı yeni bir kopya döndürür
+    private KeyState stateFor(Throwable throwable, StackTraceElement[] frames) {
+        Key key = new Key(throwable.getClass(), frames.length > 0 ? frames[0] : null);
+        
+        KeyState state = states.get(key);
+        if (state != null) {
+            return state;
+        }
+        if (states.size() >= config.getMaxKeys()) {
+            return overflowState;
+        }
+        return states.computeIfAbsent(key, k -> new KeyState(System.nanoTime()));
+    }
+    
+    private Double resolveTypeRate(Class<?> type) {
+        Map<String, Double> rates = config.getExceptionRates();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            Double rate = rates.get(current.getName());
+            if (rate == null) {
+                rate = rates.get(current.getSimpleName());
+            }
+            if (rate != null) {
+                return rate;
+            }
+        }
+        return config.getDefaultRate();
+    }
+    
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final Class<?> type;
+        private final StackTraceElement frame;
+    }
+    
+    private static final class KeyState {
+        // GCRA theoretical arrival time
+        private final AtomicLong tat;
+        private final AtomicLong suppressed = new AtomicLong();
+        
+        KeyState(long now) {
+            this.tat = new AtomicLong(now);
+        }
+        
+        boolean tryAcquire(long interval, long tolerance) {
+            long now = System.nanoTime();
+            while (true) {
+                long current = tat.get();
+                long next = (current - now > 0 ? current : now) + interval;
+                if (next - now > tolerance) {
+                    return false;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
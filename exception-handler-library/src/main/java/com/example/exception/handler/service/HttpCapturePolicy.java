@@ -0,0 +1,213 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Header/parameter capture rules compiled once from ExceptionHandlerProperties.HttpCapture.
+ * Lookups are case-insensitive through a CASE_INSENSITIVE_ORDER TreeMap and regionMatches,
+ * so header names are never lowercased or copied per call.
+ */
+public final class HttpCapturePolicy {
+    
+    private final Map<String, Rule> headerRules = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Rule> parameterRules = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final String[] headerPrefixes;
+    private final boolean allParameters;
+    private final boolean captureParameters;
+    private final boolean captureRemoteAddress;
+    private final int maxHeaders;
+    private final int maxParameters;
+    private final int maxValueLength;
+    private final String mask;
+    
+    private HttpCapturePolicy(ExceptionHandlerProperties.HttpCapture config) {
+        // Sıra önemli: exclude ve mask, listede olmayan (prefix ile eşleşen) isimleri de kapsar
+        for (String name : config.getHeaders()) {
+            headerRules.put(name, new Rule(name, true, false, false));
+        }
+        for (String name : config.getMaskedHeaders()) {
+            Rule listed = headerRules.get(name);
+            headerRules.put(name, new Rule(listed != null ? listed.outputName : name, listed != null, true, false));
+        }
+        for (String name : config.getExcludedHeaders()) {
+            headerRules.put(name, new Rule(name, false, false, true));
+        }
+        
+        for (String name : config.getParameters()) {
+            parameterRules.put(name, new Rule(name, true, false, false));
+        }
+        for (String name : config.getMaskedParameters()) {
+            Rule listed = parameterRules.get(name);
+            parameterRules.put(name, new Rule(name, listed != null, true, false));
+        }
+        for (String name : config.getExcludedParameters()) {
+            parameterRules.put(name, new Rule(name, false, false, true));
+        }
+        
+        this.headerPrefixes = config.getHeaderPrefixes().toArray(new String[0]);
+        this.allParameters = config.getParameters().isEmpty();
+        this.captureParameters = config.isCaptureParameters();
+        this.captureRemoteAddress = config.isCaptureRemoteAddress();
+        this.maxHeaders = config.getMaxHeaders();
+        this.maxParameters = config.getMaxParameters();
+        this.maxValueLength = config.getMaxValueLength();
+        this.mask = config.getMask();
+    }
+    
+    public static HttpCapturePolicy compile(ExceptionHandlerProperties.HttpCapture config) {
+        return new HttpCapturePolicy(config);
+    }
+    
+    // copyParameters: event request'ten uzun yaşayacaksa container'ın parametre map'i referans alınamaz
+    public Map<String, Object> capture(HttpServletRequest request, boolean copyParameters) {
+        Map<String, Object> data = new HashMap<>(8);
+        data.put("httpHeaders", captureHeaders(request));
+        
+        if (captureParameters) {
+            Map<String, String[]> parameters = captureParameters(request.getParameterMap(), copyParameters);
+            if (parameters != null) {
+                data.put("requestParameters", parameters);
+            }
+        }
+        
+        if (captureRemoteAddress) {
+            if (request.getRemoteAddr() != null) {
+                data.put("remoteAddress", request.getRemoteAddr());
+            }
+            if (request.getRemoteHost() != null) {
+                data.put("remoteHost", request.getRemoteHost());
+            }
+            data.put("remotePort", request.getRemotePort());
+        }
+        return data;
+    }
+    
+    private Map<String, Object> captureHeaders(HttpServletRequest request) {
+        Map<String, Object> headers = new HashMap<>();
+        Enumeration<String> names = request.getHeaderNames();
+        if (names == null) {
+            return headers;
+        }
+        
+        // Header isimleri üzerinde tek geçiş
+        while (names.hasMoreElements() && headers.size() < maxHeaders) {
+            String name = names.nextElement();
+            Rule rule = headerRules.get(name);
+            if (rule != null ? rule.excluded || (!rule.listed && !hasCapturedPrefix(name)) : !hasCapturedPrefix(name)) {
+                continue;
+            }
+            
+            String value = request.getHeader(name);
+            if (value == null || value.isBlank()) {
+                continue;
+            }
+            // Listedeki header'lar config'deki yazımıyla, diğerleri container'ın verdiği isimle
+            String key = rule != null && rule.listed ? rule.outputName : name;
+            headers.putIfAbsent(key, rule != null && rule.masked ? mask : truncate(value));
+        }
+        return headers;
+    }
+    
+    private Map<String, String[]> captureParameters(Map<String, String[]> parameters, boolean copyParameters) {
+        if (parameters == null || parameters.isEmpty()) {
+            return null;
+        }
+        
+        if (passesUnchanged(parameters)) {
+            return copyParameters ? new HashMap<>(parameters) : parameters;
+        }
+        
+        // Filtre/mask/kırpma gerekiyor, sadece alınacak parametrelerle yeni map kurulur
+        Map<String, String[]> captured = new LinkedHashMap<>();
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            if (captured.size() >= maxParameters) {
+                break;
+            }
+            Rule rule = parameterRules.get(entry.getKey());
+            if (!isParameterCaptured(rule)) {
+                continue;
+            }
+            captured.put(entry.getKey(), rule != null && rule.masked ? new String[] {mask} : truncate(entry.getValue()));
+        }
+        return captured.isEmpty() ? null : captured;
+    }
+    
+    // Hiçbir kural uygulanmıyorsa map olduğu gibi kullanılabilir
+    private boolean passesUnchanged(Map<String, String[]> parameters) {
+        if (parameters.size() > maxParameters) {
+            return false;
+        }
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            Rule rule = parameterRules.get(entry.getKey());
+            if (!isParameterCaptured(rule) || (rule != null && rule.masked)) {
+                return false;
+            }
+            String[] values = entry.getValue();
+            if (values != null) {
+                for (String value : values) {
+                    if (value != null && value.length() > maxValueLength) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+    
+    private boolean isParameterCaptured(Rule rule) {
+        if (rule == null) {
+            return allParameters;
+        }
+        return !rule.excluded && (allParameters || rule.listed);
+    }
+    
+    private boolean hasCapturedPrefix(String name) {
+        for (String prefix : headerPrefixes) {
+            if (name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private String truncate(String value) {
+        return value.length() > maxValueLength ? value.substring(0, maxValueLength) + "...(truncated)" : value;
+    }
+    
+    private String[] truncate(String[] values) {
+        if (values == null) {
+            return null;
+        }
+        String[] result = values;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null && values[i].length() > maxValueLength) {
+                if (result == values) {
+                    result = values.clone();
+                }
+                result[i] = truncate(values[i]);
+            }
+        }
+        return result;
+    }
+    
+    private static final class Rule {
+        private final String outputName;
+        private final boolean listed;
+        private final boolean masked;
+        private final boolean excluded;
+        
+        private Rule(String outputName, boolean listed, boolean masked, boolean excluded) {
+            this.outputName = outputName;
+            this.listed = listed;
+            this.masked = masked;
+            this.excluded = excluded;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.ExceptionDto;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides how a reported event is written to the application log. Per-fingerprint state is
+ * a window start and a counter updated with CAS, so a suppressed event costs one map lookup
+ * and one increment. Exactly one thread wins each window and writes its line. A background
+ * task writes pending summaries every interval, so a storm that stops still gets its count;
+ * each summary reports the time since the previous line for that fingerprint.
+ */
+public class LocalLogPolicy {
+    
+    private static final String OVERFLOW_FINGERPRINT = "*";
+    
+    private final ExceptionHandlerProperties.LocalLog config;
+    private final Logger log;
+    private final long intervalNanos;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+    private final State overflowState;
+    // Yalnızca sayaç tutan modlarda
+    private final ScheduledExecutorService scheduler;
+    
+    public LocalLogPolicy(ExceptionHandlerProperties.LocalLog config, Logger log) {
+        this.config = config;
+        this.log = log;
+        this.intervalNanos = Math.max(1, config.getInterval().toNanos());
+        this.overflowState = new State(OVERFLOW_FINGERPRINT, null, System.nanoTime() - intervalNanos);
+        
+        if (config.getMode() == ExceptionHandlerProperties.LocalLogMode.RATE_LIMITED
+            || config.getMode() == ExceptionHandlerProperties.LocalLogMode.FIRST_OCCURRENCE) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "exception-handler-local-log");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMs = Math.max(10, config.getInterval().toMillis());
+            scheduler.scheduleWithFixedDelay(this::flushExpired, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+    
+    public void log(ExceptionDto dto, Throwable exception, boolean withHttpHeaders) {
+        switch (config.getMode()) {
+            case OFF:
+                return;
+            case FIRST_OCCURRENCE:
+                logFirstOccurrence(dto, exception, withHttpHeaders);
+                return;
+            case RATE_LIMITED:
+                logRateLimited(dto, exception, withHttpHeaders);
+                return;
+            case FULL:
+            default:
+                logFull(dto, exception, withHttpHeaders, 0, 0);
+        }
+    }
+    
+    // Kapanışta bastırılmış ama henüz özetlenmemiş sayılar kaybolmasın
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (State state : states.values()) {
+            logSummary(state);
+        }
+        logSummary(overflowState);
+    }
+    
+    // Aralığı dolmuş ve bekleyen sayısı olan fingerprint'ler özetlenir
+    void flushExpired() {
+        try {
+            for (State state : states.values()) {
+                if (summaryDue(state)) {
+                    logSummary(state);
+                }
+            }
+            if (summaryDue(overflowState)) {
+                logSummary(overflowState);
+            }
+        } catch (Exception e) {
+            log.warn("Error writing suppressed exception summaries", e);
+        }
+    }
+    
+    // RATE_LIMITED'da pencere açılmaz, sıradaki event yine stack trace'iyle loglanır.
+    // FIRST_OCCURRENCE'ta pencere açılır, event yolu aynı aralıkta ikinci bir özet yazmaz
+    private boolean summaryDue(State state) {
+        if (state.suppressed.get() == 0) {
+            return false;
+        }
+        if (config.getMode() == ExceptionHandlerProperties.LocalLogMode.RATE_LIMITED) {
+            return System.nanoTime() - state.windowStart.get() >= intervalNanos;
+        }
+        return state.tryOpenWindow(intervalNanos);
+    }
+    
+    private void logRateLimited(ExceptionDto dto, Throwable exception, boolean withHttpHeaders) {
+        State state = stateFor(dto);
+        if (state.tryOpenWindow(intervalNanos)) {
+            long elapsed = System.nanoTime() - state.lastLogged.getAndSet(System.nanoTime());
+            logFull(dto, exception, withHttpHeaders, state.suppressed.getAndSet(0), elapsed);
+        } else {
+            state.suppressed.incrementAndGet();
+        }
+    }
+    
+    private void logFirstOccurrence(ExceptionDto dto, Throwable exception, boolean withHttpHeaders) {
+        State state = stateFor(dto);
+        if (state.firstLogged.compareAndSet(false, true)) {
+            state.tryOpenWindow(intervalNanos);
+            state.lastLogged.set(System.nanoTime());
+            logFull(dto, exception, withHttpHeaders, 0, 0);
+            return;
+        }
+        state.suppressed.incrementAndGet();
+        if (state.tryOpenWindow(intervalNanos)) {
+            logSummary(state);
+        }
+    }
+    
+    private void logFull(ExceptionDto dto, Throwable exception, boolean withHttpHeaders, long suppressed, long elapsedNanos) {
+        if (suppressed > 0) {
+            log.error("Exception handled and reported: {} - {} (suppressed {} occurrences in last {}s)",
+                dto.getExceptionType(), dto.getMessage(), suppressed, seconds(elapsedNanos), exception);
+        } else if (withHttpHeaders) {
+            log.error("Exception handled with HTTP headers and reported: {} - {}",
+                dto.getExceptionType(), dto.getMessage(), exception);
+        } else {
+            log.error("Exception handled and reported: {} - {}",
+                dto.getExceptionType(), dto.getMessage(), exception);
+        }
+    }
+    
+    // Sayaç ve son satırın zamanı birlikte alınır; süre yapılandırılan aralık değil, gerçekte geçen süre
+    private void logSummary(State state) {
+        long suppressed = state.suppressed.getAndSet(0);
+        if (suppressed <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long elapsed = now - state.lastLogged.getAndSet(now);
+        if (state == overflowState) {
+            log.error("Suppressed {} occurrences of untracked exceptions in last {}s", suppressed, seconds(elapsed));
+        } else {
+            log.error("Suppressed {} occurrences of {} [{}] in last {}s",
+                suppressed, state.exceptionType, state.fingerprint, seconds(elapsed));
+        }
+    }
+    
+    private static long seconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos));
+    }
+    
+    private State stateFor(ExceptionDto dto) {
+        String fingerprint = dto.getFingerprint() != null ? dto.getFingerprint() : dto.getExceptionType();
+        State state = states.get(fingerprint);
+        if (state != null) {
+            return state;
+        }
+        if (states.size() >= config.getMaxFingerprints()) {
+            return overflowState;
+        }
+        // İlk event pencereyi hemen açabilsin diye başlangıç bir aralık geride
+        return states.computeIfAbsent(fingerprint,
+            k -> new State(k, dto.getExceptionType(), System.nanoTime() - intervalNanos));
+    }
+    
+    private static final class State {
+        private final String fingerprint;
+        private final String exceptionType;
+        private final AtomicLong windowStart;
+        // Bu fingerprint için son satırın (tam ya da özet) yazıldığı an; sayaç o andan beri birikir
+        private final AtomicLong lastLogged = new AtomicLong(System.nanoTime());
+        private final AtomicLong suppressed = new AtomicLong();
+        private final AtomicBoolean firstLogged = new AtomicBoolean();
+        
+        State(String fingerprint, String exceptionType, long windowStart) {
+            this.fingerprint = fingerprint;
+            this.exceptionType = exceptionType;
+            this.windowStart = new AtomicLong(windowStart);
+        }
+        
+        // Aralık dolduysa yeni pencereyi yalnızca bir thread açar
+        boolean tryOpenWindow(long intervalNanos) {
+            long now = System.nanoTime();
+            long start = windowStart.get();
+            return now - start >= intervalNanos && windowStart.compareAndSet(start, now);
+        }
+    }
+}
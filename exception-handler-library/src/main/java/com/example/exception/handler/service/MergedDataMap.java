@@ -0,0 +1,101 @@
+package com.example.exception.handler.service;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only view over the caller's additional data and the request data captured by
+ * handleWithHttpHeaders. Request data wins on key collisions, same as the old copy-and-put.
+ */
+final class MergedDataMap extends AbstractMap<String, Object> {
+    
+    private final Map<String, Object> requestData;
+    private final Map<String, Object> additionalData;
+    
+    private MergedDataMap(Map<String, Object> requestData, Map<String, Object> additionalData) {
+        this.requestData = requestData;
+        this.additionalData = additionalData;
+    }
+    
+    static Map<String, Object> of(Map<String, Object> requestData, Map<String, Object> additionalData) {
+        if (requestData == null || requestData.isEmpty()) {
+            return additionalData;
+        }
+        if (additionalData == null || additionalData.isEmpty()) {
+            return requestData;
+        }
+        return new MergedDataMap(requestData, additionalData);
+    }
+    
+    @Override
+    public Object get(Object key) {
+        return requestData.containsKey(key) ? requestData.get(key) : additionalData.get(key);
+    }
+    
+    @Override
+    public boolean containsKey(Object key) {
+        return requestData.containsKey(key) || additionalData.containsKey(key);
+    }
+    
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new MergedIterator();
+            }
+            
+            @Override
+            public int size() {
+                int size = requestData.size();
+                for (String key : additionalData.keySet()) {
+                    if (!requestData.containsKey(key)) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+    
+    private final class MergedIterator implements Iterator<Entry<String, Object>> {
+        
+        private final Iterator<Entry<String, Object>> first = requestData.entrySet().iterator();
+        private final Iterator<Entry<String, Object>> second = additionalData.entrySet().iterator();
+        private Entry<String, Object> next;
+        
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (first.hasNext()) {
+                next = first.next();
+                return true;
+            }
+            // Request data ile çakışan key'ler atlanır
+            while (second.hasNext()) {
+                Entry<String, Object> candidate = second.next();
+                if (!requestData.containsKey(candidate.getKey())) {
+                    next = candidate;
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<String, Object> result = next;
+            next = null;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.StackFrameDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Depth-capped replacement for printStackTrace(): walks the trace and cause chain once,
+ * producing both the structured frame list and the rendered text. Suppressed exceptions
+ * are rendered like printStackTrace() does but are not part of the frame list. Rendered frame lines
+ * are cached per StackTraceElement since the same frames repeat across events.
+ */
+public class StackTraceCapture {
+    
+    private final ExceptionHandlerProperties.StackTrace config;
+    private final String[] inAppPackages;
+    private final Map<StackTraceElement, CachedFrame> frameCache = new ConcurrentHashMap<>();
+    
+    public StackTraceCapture(ExceptionHandlerProperties.StackTrace config) {
+        this.config = config;
+        this.inAppPackages = config.getInAppPackages().stream()
+            .map(pkg -> pkg.endsWith(".") ? pkg : pkg + ".")
+            .toArray(String[]::new);
+    }
+    
+    public CapturedStack capture(Throwable throwable) {
+        return capture(throwable, throwable.getStackTrace());
+    }
+    
+    // rootTrace: throwable.getStackTrace(), çağıran zaten aldıysa tekrar kopyalanmaz
+    public CapturedStack capture(Throwable throwable, StackTraceElement[] rootTrace) {
+        StringBuilder rendered = new StringBuilder(1024);
+        List<StackFrameDto> frames = new ArrayList<>();
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        boolean collapse = config.isCollapseFrameworkFrames() && inAppPackages.length > 0;
+        
+        Throwable current = throwable;
+        StackTraceElement[] enclosing = null;
+        int causeIndex = 0;
+        while (current != null && causeIndex <= config.getMaxCauseDepth() && seen.add(current)) {
+            if (causeIndex > 0) {
+                rendered.append("Caused by: ");
+            }
+            rendered.append(current).append('\n');
+            
+            StackTraceElement[] trace = causeIndex == 0 ? rootTrace : current.getStackTrace();
+            appendFrames(rendered, frames, "", trace, enclosing, causeIndex, collapse);
+            appendSuppressed(rendered, "\t", current, trace, causeIndex, seen, collapse);
+            
+            enclosing = trace;
+            current = current.getCause();
+            causeIndex++;
+        }
+        
+        if (current != null && !seen.contains(current)) {
+            rendered.append("\t... cause chain truncated\n");
+        }
+        
+        return new CapturedStack(frames, rendered.toString());
+    }
+    
+    // printStackTrace'teki "Suppressed:" blokları; yalnızca metne yazılır, frames listesi cause zinciri olarak kalır.
+    // İç içe suppressed/cause seviyeleri de max-cause-depth'e sayılır
+    private void appendSuppressed(StringBuilder rendered, String prefix, Throwable owner, StackTraceElement[] ownerTrace,
+                                  int depth, Set<Throwable> seen, boolean collapse) {
+        Throwable[] suppressed = owner.getSuppressed();
+        if (suppressed.length == 0) {
+            return;
+        }
+        if (depth >= config.getMaxCauseDepth()) {
+            rendered.append(prefix).append("... ").append(suppressed.length).append(" suppressed truncated\n");
+            return;
+        }
+        for (Throwable s : suppressed) {
+            appendEnclosed(rendered, prefix, "Suppressed: ", s, ownerTrace, depth + 1, seen, collapse);
+        }
+    }
+    
+    private void appendEnclosed(StringBuilder rendered, String prefix, String caption, Throwable throwable,
+                                StackTraceElement[] enclosing, int depth, Set<Throwable> seen, boolean collapse) {
+        if (!seen.add(throwable)) {
+            rendered.append(prefix).append(caption).append("[CIRCULAR REFERENCE: ").append(throwable).append("]\n");
+            return;
+        }
+        rendered.append(prefix).append(caption).append(throwable).append('\n');
+        
+        StackTraceElement[] trace = throwable.getStackTrace();
+        appendFrames(rendered, null, prefix, trace, enclosing, depth, collapse);
+        appendSuppressed(rendered, prefix + "\t", throwable, trace, depth, seen, collapse);
+        
+        Throwable cause = throwable.getCause();
+        if (cause != null) {
+            if (depth >= config.getMaxCauseDepth()) {
+                rendered.append(prefix).append("\t... cause chain truncated\n");
+            } else {
+                appendEnclosed(rendered, prefix, "Caused by: ", cause, trace, depth + 1, seen, collapse);
+            }
+        }
+    }
+    
+    // frames null ise yalnızca metin üretilir
+    private void appendFrames(StringBuilder rendered, List<StackFrameDto> frames, String prefix, StackTraceElement[] trace,
+                              StackTraceElement[] enclosing, int causeIndex, boolean collapse) {
+        int inCommon = enclosing != null ? framesInCommon(trace, enclosing) : 0;
+        int limit = trace.length - inCommon;
+        
+        int emitted = 0;
+        StackFrameDto collapsedHead = null;
+        int collapsed = -1;
+        int i = 0;
+        for (; i < limit && emitted < config.getMaxDepth(); i++) {
+            CachedFrame frame = frameFor(trace[i]);
+            
+            // Fırlatıldığı frame her zaman gösterilir
+            if (collapse && !frame.inApp && i > 0) {
+                if (collapsed >= 0) {
+                    collapsed++;
+                    continue;
+                }
+                collapsed = 0;
+                if (frames != null) {
+                    collapsedHead = toDto(causeIndex, trace[i], frame);
+                    frames.add(collapsedHead);
+                }
+                rendered.append(prefix).append(frame.rendered);
+                emitted++;
+                continue;
+            }
+            
+            appendCollapsed(rendered, prefix, collapsedHead, collapsed);
+            collapsedHead = null;
+            collapsed = -1;
+            if (frames != null) {
+                frames.add(toDto(causeIndex, trace[i], frame));
+            }
+            rendered.append(prefix).append(frame.rendered);
+            emitted++;
+        }
+        appendCollapsed(rendered, prefix, collapsedHead, collapsed);
+        
+        if (i < limit) {
+            rendered.append(prefix).append("\t... ").append(limit - i).append(" more frames truncated\n");
+        }
+        if (inCommon > 0) {
+            rendered.append(prefix).append("\t... ").append(inCommon).append(" more\n");
+        }
+    }
+    
+    private CachedFrame frameFor(StackTraceElement element) {
+        CachedFrame cached = frameCache.get(element);
+        if (cached != null) {
+            return cached;
+        }
+        
+        if (frameCache.size() >= config.getFrameCacheSize()) {
+            frameCache.clear();
+        }
+        cached = new CachedFrame("\tat " + element + "\n", isInApp(element.getClassName()));
+        frameCache.put(element, cached);
+        return cached;
+    }
+    
+    private boolean isInApp(String className) {
+        for (String pkg : inAppPackages) {
+            if (className.startsWith(pkg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static StackFrameDto toDto(int causeIndex, StackTraceElement element, CachedFrame frame) {
+        return new StackFrameDto(causeIndex, element.getClassName(), element.getMethodName(),
+            element.getFileName(), element.getLineNumber(), frame.inApp, 0);
+    }
+    
+    private static void appendCollapsed(StringBuilder rendered, String prefix, StackFrameDto collapsedHead, int collapsed) {
+        if (collapsedHead != null) {
+            collapsedHead.setCollapsedFrames(collapsed);
+        }
+        if (collapsed > 0) {
+            rendered.append(prefix).append("\t... ").append(collapsed).append(" framework frames collapsed\n");
+        }
+    }
+    
+    // Throwable.printStackTrace ile aynı: cause'un enclosing trace ile ortak kuyruğu tekrar basılmaz
+    private static int framesInCommon(StackTraceElement[] trace, StackTraceElement[] enclosing) {
+        int m = trace.length - 1;
+        int n = enclosing.length - 1;
+        while (m >= 0 && n >= 0 && trace[m].equals(enclosing[n])) {
+            m--;
+            n--;
+        }
+        return trace.length - 1 - m;
+    }
+    
+    @RequiredArgsConstructor
+    private static final class CachedFrame {
+        private final String rendered;
+        private final boolean inApp;
+    }
+    
+    @Getter
+    @RequiredArgsConstructor
+    public static final class CapturedStack {
+        private final List<StackFrameDto> frames;
+        private final String rendered;
+    }
+}
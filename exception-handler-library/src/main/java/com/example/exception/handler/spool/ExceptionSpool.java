@@ -0,0 +1,215 @@
+package com.example.exception.handler.spool;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bounded FIFO of records on memory-mapped segment files. At most maxSegments files of
+ * segmentSize bytes exist; when they are full new records are dropped and counted.
+ */
+@Slf4j
+public class ExceptionSpool implements AutoCloseable {
+    
+    private static final String SEGMENT_PREFIX = "spool-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    
+    private final ExceptionHandlerProperties.Spool config;
+    private final Path directory;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final Deque<SpoolSegment> segments = new ArrayDeque<>();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private long nextSequence;
+    private long pendingCount;
+    
+    public ExceptionSpool(ExceptionHandlerProperties.Spool config) throws IOException {
+        this.config = config;
+        this.directory = Path.of(config.getDirectory());
+        Files.createDirectories(directory);
+        
+        // Aynı dizini iki process kullanırsa kayıtlar birbirine karışır
+        this.lockChannel = FileChannel.open(directory.resolve("spool.lock"),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Spool directory is in use by another process: " + directory);
+        }
+        
+        recover();
+    }
+    
+    public synchronized boolean append(SpooledRecord record) {
+        byte[] bytes = record.encode();
+        if (bytes.length > SpoolSegment.maxRecordSize(config.getSegmentSize())) {
+            return drop("record of " + bytes.length + " bytes is larger than a segment");
+        }
+        
+        try {
+            SpoolSegment tail = segments.peekLast();
+            if (tail == null || !tail.append(bytes)) {
+                // Okunmuş segment'ler disk sınırına sayılmasın
+                headWithData();
+                if (segments.size() == 1 && segments.peekFirst().isDrained()) {
+                    deleteQuietly(segments.pollFirst());
+                }
+                if (segments.size() >= config.getMaxSegments()) {
+                    return drop("spool is full");
+                }
+                tail = SpoolSegment.create(segmentPath(nextSequence), nextSequence++, config.getSegmentSize());
+                segments.addLast(tail);
+                tail.append(bytes);
+            }
+            pendingCount++;
+            return true;
+        } catch (IOException e) {
+            log.error("Error writing to exception spool in {}", directory, e);
+            return drop("spool write failed");
+        }
+    }
+    
+    public synchronized SpooledRecord peek() {
+        SpoolSegment head = headWithData();
+        if (head == null) {
+            return null;
+        }
+        return SpooledRecord.decode(head.peek());
+    }
+    
+    // peek() ile alınan kayıt Kafka'ya ulaştıktan sonra çağrılır
+    public synchronized void remove() {
+        SpoolSegment head = headWithData();
+        if (head == null) {
+            return;
+        }
+        head.advance();
+        pendingCount--;
+        if (head.isDrained() && segments.size() > 1) {
+            segments.pollFirst();
+            deleteQuietly(head);
+        }
+    }
+    
+    public synchronized boolean isEmpty() {
+        return pendingCount == 0;
+    }
+    
+    public synchronized long size() {
+        return pendingCount;
+    }
+    
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+    
+    public synchronized void force() {
+        for (SpoolSegment segment : segments) {
+            segment.force();
+        }
+    }
+    
+    @Override
+    public synchronized void close() {
+        for (SpoolSegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                log.warn("Error closing spool segment {}", segment.getPath(), e);
+            }
+        }
+        segments.clear();
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            log.warn("Error releasing spool lock in {}", directory, e);
+        }
+    }
+    
+    private SpoolSegment headWithData() {
+        // Tamamen okunmuş baştaki segment'ler atlanır (yalnızca son segment boş kalabilir)
+        while (segments.size() > 1 && segments.peekFirst().isDrained()) {
+            deleteQuietly(segments.pollFirst());
+        }
+        SpoolSegment head = segments.peekFirst();
+        return head != null && !head.isDrained() ? head : null;
+    }
+    
+    private boolean drop(String reason) {
+        long dropped = droppedCount.incrementAndGet();
+        if (dropped == 1 || dropped % 1000 == 0) {
+            log.warn("Exception spool dropped an event ({}), total dropped: {}", reason, dropped);
+        }
+        return false;
+    }
+    
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).forEach(files::add);
+        }
+        files.sort((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)));
+        
+        for (Path file : files) {
+            long sequence = sequenceOf(file);
+            SpoolSegment segment = sequence >= 0 ? SpoolSegment.open(file, sequence) : null;
+            if (segment == null) {
+                log.warn("Discarding unreadable spool segment {}", file);
+                Files.deleteIfExists(file);
+                continue;
+            }
+            if (segment.getDiscardedBytes() > 0) {
+                log.warn("Spool segment {} has a corrupt record chain, dropped {} bytes after the last intact record",
+                    file, segment.getDiscardedBytes());
+            }
+            if (segment.isDrained()) {
+                segment.delete();
+            } else {
+                segments.addLast(segment);
+                pendingCount += segment.countPending();
+            }
+            nextSequence = Math.max(nextSequence, sequence + 1);
+        }
+        
+        if (pendingCount > 0) {
+            log.info("Recovered {} spooled exception events from {}", pendingCount, directory);
+        }
+    }
+    
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+    
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    private void deleteQuietly(SpoolSegment segment) {
+        try {
+            segment.delete();
+        } catch (IOException e) {
+            log.warn("Error deleting spool segment {}", segment.getPath(), e);
+        }
+    }
+}
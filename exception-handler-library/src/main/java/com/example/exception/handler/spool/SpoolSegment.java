@@ -0,0 +1,179 @@
+package com.example.exception.handler.spool;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One fixed-size memory-mapped spool file.
+ * Layout: [magic][writePos][readPos][reserved] then [length][record] entries.
+ * Positions are stored in the header, so a restart continues where the previous process stopped.
+ */
+final class SpoolSegment {
+    
+    static final int MAGIC = 0x45585350;
+    static final int HEADER_SIZE = 16;
+    
+    private static final int WRITE_POS_OFFSET = 4;
+    private static final int READ_POS_OFFSET = 8;
+    
+    private final long sequence;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int writePos;
+    private int readPos;
+    // open() sırasında bozuk kayıt zinciri yüzünden atılan byte sayısı
+    private int discardedBytes;
+    
+    private SpoolSegment(long sequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+    
+    static SpoolSegment create(Path path, long sequence, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        SpoolSegment segment = new SpoolSegment(sequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        segment.buffer.putInt(0, MAGIC);
+        segment.writePos = HEADER_SIZE;
+        segment.readPos = HEADER_SIZE;
+        segment.buffer.putInt(WRITE_POS_OFFSET, HEADER_SIZE);
+        segment.buffer.putInt(READ_POS_OFFSET, HEADER_SIZE);
+        return segment;
+    }
+    
+    // Bozuk ya da yarım kalmış dosyalar için null döner
+    static SpoolSegment open(Path path, long sequence) throws IOException {
+        long size = Files.size(path);
+        if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+            return null;
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        SpoolSegment segment = new SpoolSegment(sequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        segment.writePos = segment.buffer.getInt(WRITE_POS_OFFSET);
+        segment.readPos = segment.buffer.getInt(READ_POS_OFFSET);
+        if (segment.buffer.getInt(0) != MAGIC
+                || segment.readPos < HEADER_SIZE || segment.readPos > segment.writePos || segment.writePos > size) {
+            channel.close();
+            return null;
+        }
+        segment.recover();
+        return segment;
+    }
+    
+    // Crash'te mmap sayfaları diske sırasız yazılabilir; header'daki pozisyonlar kayıt zinciriyle doğrulanır.
+    // Bozuk bir length'ten sonrası okunamaz, writePos son sağlam kaydın sonuna çekilir
+    private void recover() {
+        int pos = HEADER_SIZE;
+        boolean readPosOnBoundary = readPos == HEADER_SIZE;
+        while (pos < writePos) {
+            int length = writePos - pos >= 4 ? buffer.getInt(pos) : -1;
+            if (length < 0 || length > writePos - pos - 4) {
+                break;
+            }
+            pos += 4 + length;
+            if (pos == readPos) {
+                readPosOnBoundary = true;
+            }
+        }
+        if (pos < writePos) {
+            discardedBytes = writePos - pos;
+            writePos = pos;
+            buffer.putInt(WRITE_POS_OFFSET, writePos);
+        }
+        if (readPos > writePos) {
+            // Bekleyen kayıtların hepsi bozuk bölgedeydi
+            readPos = writePos;
+            buffer.putInt(READ_POS_OFFSET, readPos);
+        } else if (!readPosOnBoundary) {
+            // Hangi kayıtların gönderildiği bilinmiyor; baştan tekrar gönderilir, monitor tekrarları atlar
+            readPos = HEADER_SIZE;
+            buffer.putInt(READ_POS_OFFSET, readPos);
+        }
+    }
+    
+    boolean append(byte[] record) {
+        int next = writePos + 4 + record.length;
+        if (next > buffer.capacity()) {
+            return false;
+        }
+        buffer.putInt(writePos, record.length);
+        buffer.put(writePos + 4, record);
+        // Header en son güncellenir, yarım yazılmış kayıt okunmaz
+        writePos = next;
+        buffer.putInt(WRITE_POS_OFFSET, writePos);
+        return true;
+    }
+    
+    byte[] peek() {
+        if (readPos >= writePos) {
+            return null;
+        }
+        int length = buffer.getInt(readPos);
+        byte[] record = new byte[length];
+        buffer.get(readPos + 4, record);
+        return record;
+    }
+    
+    void advance() {
+        if (readPos < writePos) {
+            readPos += 4 + buffer.getInt(readPos);
+            buffer.putInt(READ_POS_OFFSET, readPos);
+        }
+    }
+    
+    int countPending() {
+        int count = 0;
+        for (int pos = readPos; pos < writePos; pos += 4 + buffer.getInt(pos)) {
+            count++;
+        }
+        return count;
+    }
+    
+    boolean isDrained() {
+        return readPos >= writePos;
+    }
+    
+    static int maxRecordSize(int segmentSize) {
+        return segmentSize - HEADER_SIZE - 4;
+    }
+    
+    int getDiscardedBytes() {
+        return discardedBytes;
+    }
+    
+    long getSequence() {
+        return sequence;
+    }
+    
+    Path getPath() {
+        return path;
+    }
+    
+    int capacity() {
+        return buffer.capacity();
+    }
+    
+    void force() {
+        buffer.force();
+    }
+    
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+    
+    void delete() throws IOException {
+        channel.close();
+        // Mapping GC'ye kadar yaşar; Linux'ta sorun değil, silinemezse çıkışta denenir
+        if (!path.toFile().delete()) {
+            path.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.exception.handler.spool;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Spool'daki tek kayıt: Kafka key, header'lar ve payload
+@Getter
+@RequiredArgsConstructor
+public class SpooledRecord {
+    
+    private final String key;
+    private final Headers headers;
+    private final byte[] payload;
+    
+    // [keyLen][key][headerCount]([nameLen][name][valueLen][value])*[payload]
+    byte[] encode() {
+        byte[] keyBytes = key != null ? key.getBytes(StandardCharsets.UTF_8) : null;
+        Header[] headerArray = headers != null ? headers.toArray() : new Header[0];
+        int size = 4 + (keyBytes != null ? keyBytes.length : 0) + 4 + payload.length;
+        byte[][] names = new byte[headerArray.length][];
+        for (int i = 0; i < headerArray.length; i++) {
+            names[i] = headerArray[i].key().getBytes(StandardCharsets.UTF_8);
+            byte[] value = headerArray[i].value();
+            size += 4 + names[i].length + 4 + (value != null ? value.length : 0);
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        putBytes(buffer, keyBytes);
+        buffer.putInt(headerArray.length);
+        for (int i = 0; i < headerArray.length; i++) {
+            putBytes(buffer, names[i]);
+            putBytes(buffer, headerArray[i].value());
+        }
+        buffer.put(payload);
+        return buffer.array();
+    }
+    
+    static SpooledRecord decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte[] keyBytes = getBytes(buffer);
+        int headerCount = buffer.getInt();
+        RecordHeaders headers = new RecordHeaders();
+        for (int i = 0; i < headerCount; i++) {
+            String name = new String(getBytes(buffer), StandardCharsets.UTF_8);
+            headers.add(name, getBytes(buffer));
+        }
+        byte[] payload = new byte[buffer.remaining()];
+        buffer.get(payload);
+        return new SpooledRecord(keyBytes != null ? new String(keyBytes, StandardCharsets.UTF_8) : null, headers, payload);
+    }
+    
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+    
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
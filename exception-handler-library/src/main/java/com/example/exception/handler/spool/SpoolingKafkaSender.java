@@ -0,0 +1,170 @@
+package com.example.exception.handler.spool;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends to Kafka while the broker is reachable and the spool is empty. Otherwise it appends
+ * to the spool, which a single replay thread drains in order at a bounded rate.
+ * Application threads never wait for broker metadata: until the replay thread has
+ * confirmed connectivity (after the first event or a failure), events go to the spool.
+ * The replay thread, and with it the producer, starts with the first event unless
+ * events from a previous run are waiting in the spool.
+ */
+@Slf4j
+public class SpoolingKafkaSender implements AutoCloseable {
+    
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final String topic;
+    private final ExceptionHandlerProperties.Spool config;
+    private final ExceptionSpool spool;
+    private final Thread replayThread;
+    private final long replayIntervalNanos;
+    private final AtomicBoolean started = new AtomicBoolean();
+    
+    private volatile boolean available = false;
+    private volatile boolean running = true;
+    
+    public SpoolingKafkaSender(KafkaTemplate<String, byte[]> kafkaTemplate, String topic,
+                               ExceptionHandlerProperties.Spool config, ExceptionSpool spool) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.config = config;
+        this.spool = spool;
+        this.replayIntervalNanos = config.getReplayRatePerSecond() > 0
+            ? TimeUnit.SECONDS.toNanos(1) / config.getReplayRatePerSecond() : 0;
+        
+        this.replayThread = new Thread(this::replayLoop, "exception-handler-spool-replay");
+        replayThread.setDaemon(true);
+        // Önceki çalışmadan kalan event'ler hemen replay edilir
+        if (!spool.isEmpty()) {
+            startReplay();
+        }
+    }
+    
+    // Doğrudan gönderildiyse Kafka sonucunu, spool'a yazıldıysa null döner
+    public CompletableFuture<?> send(String key, byte[] payload, Headers headers) {
+        if (!started.get()) {
+            startReplay();
+        }
+        if (available && spool.isEmpty()) {
+            try {
+                return kafkaTemplate.send(new ProducerRecord<>(topic, null, key, payload, headers))
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            // Producer buffer'ında bekleyip teslim edilemeyenler de kaybolmasın
+                            markUnavailable(ex);
+                            spool(key, payload, headers);
+                        }
+                    });
+            } catch (Exception e) {
+                markUnavailable(e);
+            }
+        }
+        spool(key, payload, headers);
+        return null;
+    }
+    
+    public boolean isAvailable() {
+        return available;
+    }
+    
+    public long getSpooledCount() {
+        return spool.size();
+    }
+    
+    public long getDroppedCount() {
+        return spool.getDroppedCount();
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        if (started.get()) {
+            LockSupport.unpark(replayThread);
+            try {
+                replayThread.join(config.getShutdownTimeout().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Gönderilemeyenler diskte kalır, bir sonraki açılışta replay edilir
+        spool.close();
+    }
+    
+    private void startReplay() {
+        if (started.compareAndSet(false, true)) {
+            replayThread.start();
+        }
+    }
+    
+    private void spool(String key, byte[] payload, Headers headers) {
+        if (spool.append(new SpooledRecord(key, headers, payload))) {
+            LockSupport.unpark(replayThread);
+        }
+    }
+    
+    private void markUnavailable(Throwable cause) {
+        if (available) {
+            available = false;
+            log.warn("Kafka unavailable, spooling exception events to disk: {}", cause.toString());
+        }
+    }
+    
+    private void replayLoop() {
+        long retryNanos = config.getRetryInterval().toNanos();
+        while (running) {
+            try {
+                if (!available && !probe()) {
+                    LockSupport.parkNanos(retryNanos);
+                    continue;
+                }
+                
+                SpooledRecord record = spool.peek();
+                if (record == null) {
+                    if (!available) {
+                        log.info("Kafka reachable again, exception spool drained");
+                    }
+                    available = true;
+                    spool.force();
+                    LockSupport.parkNanos(retryNanos);
+                    continue;
+                }
+                
+                // Sıra korunur: kayıt Kafka onayı gelmeden spool'dan silinmez
+                kafkaTemplate.send(new ProducerRecord<>(topic, null, record.getKey(), record.getPayload(), record.getHeaders()))
+                    .get(config.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                spool.remove();
+                
+                if (replayIntervalNanos > 0) {
+                    LockSupport.parkNanos(replayIntervalNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                markUnavailable(e);
+                LockSupport.parkNanos(retryNanos);
+            }
+        }
+    }
+    
+    // Metadata isteği max.block.ms kadar bloklayabilir, bu yüzden sadece replay thread'inde
+    private boolean probe() {
+        try {
+            kafkaTemplate.partitionsFor(topic);
+            return true;
+        } catch (Exception e) {
+            log.debug("Kafka still unavailable: {}", e.toString());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.exception.handler.transport;
+
+import org.apache.kafka.common.header.Headers;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Delivers encoded events (single events or envelopes) to the monitor. Headers carry the
+ * wire format, schema version and envelope marker, whatever the transport.
+ */
+public interface ExceptionTransport extends AutoCloseable {
+    
+    /**
+     * @return completes when the monitor side has accepted the record, or null if the
+     *         record was parked locally (e.g. spooled) and will be delivered later
+     */
+    CompletableFuture<?> send(String key, byte[] payload, Headers headers);
+    
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.exception.handler.transport;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POSTs records to the monitor's ingest endpoint in batches. One sender thread collects
+ * records until maxBatchSize/maxBatchBytes or the linger time, then sends them as a single
+ * {@value #CONTENT_TYPE} body. Each frame is:
+ * <pre>
+ * int keyLength (-1 = null), key UTF-8
+ * short headerCount, then per header: short nameLength, name UTF-8, int valueLength, value
+ * int payloadLength, payload
+ * </pre>
+ * Payloads are passed through unchanged, so JSON, Smile and envelopes all work.
+ */
+@Slf4j
+public class HttpExceptionTransport implements ExceptionTransport {
+    
+    public static final String CONTENT_TYPE = "application/vnd.exception-batch";
+    
+    private final ExceptionHandlerProperties.Http config;
+    private final HttpClient client;
+    private final URI uri;
+    private final BlockingQueue<Pending> queue;
+    private final Thread sender;
+    
+    private volatile boolean running = true;
+    
+    public HttpExceptionTransport(ExceptionHandlerProperties.Http config) {
+        this.config = config;
+        this.uri = URI.create(config.getUrl());
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(config.getTimeout())
+            .build();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.sender = new Thread(this::sendLoop, "exception-handler-http");
+        sender.setDaemon(true);
+        sender.start();
+    }
+    
+    @Override
+    public CompletableFuture<?> send(String key, byte[] payload, Headers headers) {
+        Pending pending = new Pending(key, payload, headers);
+        if (!running || !queue.offer(pending)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("HTTP transport queue is full"));
+        }
+        return pending.result;
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        // Devam eden istek shutdownTimeout kadar beklenir; bitmezse sender interrupt edilir ve batch'i failed sayılır
+        boolean drained = false;
+        try {
+            sender.join(Math.max(1, config.getShutdownTimeout().toMillis()));
+            if (sender.isAlive()) {
+                sender.interrupt();
+                sender.join(1000);
+            } else {
+                drained = true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Kalanlar son bir istekle gönderilir; süre dolduysa monitor'e ulaşılamıyor demektir, beklenmez
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        if (drained) {
+            post(remaining);
+        } else {
+            fail(remaining, new IllegalStateException("HTTP transport closed before records were sent"));
+        }
+    }
+    
+    private void sendLoop() {
+        List<Pending> batch = new ArrayList<>();
+        while (running) {
+            try {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long bytes = first.payload.length;
+                long deadline = System.nanoTime() + config.getLinger().toNanos();
+                while (batch.size() < config.getMaxBatchSize() && bytes < config.getMaxBatchBytes()) {
+                    Pending next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    bytes += next.payload.length;
+                }
+                post(batch);
+            } catch (InterruptedException e) {
+                // close()'un süresi doldu; toplanmış batch beklemeden failed sayılır
+                fail(batch, e);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void post(List<Pending> batch) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(config.getTimeout())
+                .header("Content-Type", CONTENT_TYPE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(encode(batch)));
+            for (Map.Entry<String, String> header : config.getHeaders().entrySet()) {
+                request.header(header.getKey(), header.getValue());
+            }
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2) {
+                fail(batch, new IOException("Monitor ingest returned HTTP " + response.statusCode()));
+                return;
+            }
+            batch.forEach(p -> p.result.complete(null));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(batch, e);
+        } catch (Exception e) {
+            log.debug("Error posting {} exception records to {}: {}", batch.size(), uri, e.toString());
+            fail(batch, e);
+        }
+    }
+    
+    private static void fail(List<Pending> batch, Exception cause) {
+        batch.forEach(p -> p.result.completeExceptionally(cause));
+    }
+    
+    private static byte[] encode(List<Pending> batch) throws IOException {
+        int size = 0;
+        for (Pending pending : batch) {
+            size += pending.payload.length + 64;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(size);
+        DataOutputStream out = new DataOutputStream(buffer);
+        for (Pending pending : batch) {
+            writeBytes(out, pending.key != null ? pending.key.getBytes(StandardCharsets.UTF_8) : null);
+            Header[] headers = pending.headers != null ? pending.headers.toArray() : new Header[0];
+            out.writeShort(headers.length);
+            for (Header header : headers) {
+                byte[] name = header.key().getBytes(StandardCharsets.UTF_8);
+                out.writeShort(name.length);
+                out.write(name);
+                writeBytes(out, header.value());
+            }
+            writeBytes(out, pending.payload);
+        }
+        out.flush();
+        return buffer.toByteArray();
+    }
+    
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static final class Pending {
+        private final String key;
+        private final byte[] payload;
+        private final Headers headers;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        
+        private Pending(String key, byte[] payload, Headers headers) {
+            this.key = key;
+            this.payload = payload;
+            this.headers = headers;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.exception.handler.transport;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.record.TimestampType;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Hands records straight to a monitor running in the same JVM, with no broker in between.
+ * The monitor exposes its ingest pipeline as a Consumer&lt;ConsumerRecord&lt;String, byte[]&gt;&gt;
+ * bean named {@value #SINK_BEAN_NAME}, so records take exactly the path Kafka records take.
+ */
+public class InProcessExceptionTransport implements ExceptionTransport {
+    
+    public static final String SINK_BEAN_NAME = "exceptionIngestSink";
+    
+    private final String topic;
+    private final Supplier<Consumer<ConsumerRecord<String, byte[]>>> sinkSupplier;
+    
+    private volatile Consumer<ConsumerRecord<String, byte[]>> sink;
+    
+    // Sink ilk event'te çözülür; monitor bean'leri handler'dan sonra oluşsa da sorun olmaz
+    public InProcessExceptionTransport(String topic, Supplier<Consumer<ConsumerRecord<String, byte[]>>> sinkSupplier) {
+        this.topic = topic;
+        this.sinkSupplier = sinkSupplier;
+    }
+    
+    @Override
+    public CompletableFuture<?> send(String key, byte[] payload, Headers headers) {
+        try {
+            Consumer<ConsumerRecord<String, byte[]>> target = sink;
+            if (target == null) {
+                target = sinkSupplier.get();
+                if (target == null) {
+                    throw new IllegalStateException("No " + SINK_BEAN_NAME + " bean found for in-process transport");
+                }
+                sink = target;
+            }
+            target.accept(new ConsumerRecord<>(topic, -1, -1L, System.currentTimeMillis(), TimestampType.CREATE_TIME,
+                key != null ? key.length() : -1, payload.length, key, payload, headers, Optional.empty()));
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
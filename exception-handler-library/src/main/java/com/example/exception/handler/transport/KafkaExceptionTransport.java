@@ -0,0 +1,78 @@
+package com.example.exception.handler.transport;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.spool.ExceptionSpool;
+import com.example.exception.handler.spool.SpoolingKafkaSender;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends to the exceptions topic, through the local spool or the lazy producer start-up
+ * when those are enabled.
+ */
+@Slf4j
+public class KafkaExceptionTransport implements ExceptionTransport {
+    
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final String topic;
+    private final SpoolingKafkaSender spoolingSender;
+    private final LazyKafkaSender lazySender;
+    
+    public KafkaExceptionTransport(KafkaTemplate<String, byte[]> kafkaTemplate, ExceptionHandlerProperties properties) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = properties.getKafka().getTopic();
+        this.spoolingSender = properties.getSpool().isEnabled()
+            ? createSpoolingSender(kafkaTemplate, properties)
+            : null;
+        // Spool zaten broker'a ulaşılana kadar event'leri diskte tutuyor
+        this.lazySender = spoolingSender == null && properties.getKafka().getProducer().isLazyInit()
+            ? new LazyKafkaSender(kafkaTemplate, topic, properties.getKafka().getProducer())
+            : null;
+    }
+    
+    @Override
+    public CompletableFuture<?> send(String key, byte[] payload, Headers headers) {
+        if (spoolingSender != null) {
+            return spoolingSender.send(key, payload, headers);
+        }
+        if (lazySender != null) {
+            return lazySender.send(key, payload, headers);
+        }
+        return kafkaTemplate.send(new ProducerRecord<>(topic, null, key, payload, headers));
+    }
+    
+    public long getSpooledCount() {
+        return spoolingSender != null ? spoolingSender.getSpooledCount() : 0;
+    }
+    
+    public long getSpoolDroppedCount() {
+        return spoolingSender != null ? spoolingSender.getDroppedCount() : 0;
+    }
+    
+    @Override
+    public void close() {
+        if (spoolingSender != null) {
+            spoolingSender.close();
+        }
+        if (lazySender != null) {
+            lazySender.close();
+        }
+    }
+    
+    private static SpoolingKafkaSender createSpoolingSender(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                                            ExceptionHandlerProperties properties) {
+        try {
+            ExceptionSpool spool = new ExceptionSpool(properties.getSpool());
+            return new SpoolingKafkaSender(kafkaTemplate, properties.getKafka().getTopic(), properties.getSpool(), spool);
+        } catch (Exception e) {
+            // Spool açılamazsa doğrudan Kafka'ya gönderilir
+            log.error("Could not open exception spool in {}, sending directly to Kafka",
+                properties.getSpool().getDirectory(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.exception.handler.transport;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Defers the Kafka producer until the first event. That event starts a background thread
+ * which creates the producer and fetches topic metadata; until it succeeds, events wait
+ * in a bounded buffer and the caller never blocks on the broker. Once ready, events are
+ * sent directly.
+ */
+@Slf4j
+public class LazyKafkaSender implements AutoCloseable {
+    
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final String topic;
+    private final ExceptionHandlerProperties.Producer config;
+    private final BlockingQueue<Pending> buffer;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Object drainLock = new Object();
+    
+    private volatile boolean ready = false;
+    private volatile boolean running = true;
+    private volatile Thread initThread;
+    
+    public LazyKafkaSender(KafkaTemplate<String, byte[]> kafkaTemplate, String topic,
+                           ExceptionHandlerProperties.Producer config) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.config = config;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, config.getInitBufferCapacity()));
+    }
+    
+    public CompletableFuture<?> send(String key, byte[] payload, Headers headers) {
+        if (ready) {
+            return sendNow(key, payload, headers);
+        }
+        if (started.compareAndSet(false, true)) {
+            startInit();
+        }
+        
+        Pending pending = new Pending(key, payload, headers);
+        synchronized (drainLock) {
+            // Init thread buffer'ı boşaltırken araya girilmesin, sıra korunur
+            if (ready) {
+                return sendNow(key, payload, headers);
+            }
+            if (!buffer.offer(pending)) {
+                droppedCount.incrementAndGet();
+                return CompletableFuture.failedFuture(
+                    new IllegalStateException("Kafka producer not ready and init buffer is full"));
+            }
+        }
+        return pending.result;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+    
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        Thread thread = initThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(config.getMaxBlock().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<Pending> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("Kafka producer never became ready, dropping {} buffered exception events", remaining.size());
+            remaining.forEach(p -> p.result.completeExceptionally(
+                new IllegalStateException("Kafka producer not ready at shutdown")));
+        }
+    }
+    
+    private CompletableFuture<?> sendNow(String key, byte[] payload, Headers headers) {
+        return kafkaTemplate.send(new ProducerRecord<>(topic, null, key, payload, headers));
+    }
+    
+    private void startInit() {
+        Thread thread = new Thread(this::initLoop, "exception-handler-producer-init");
+        thread.setDaemon(true);
+        initThread = thread;
+        thread.start();
+    }
+    
+    private void initLoop() {
+        long retryNanos = config.getInitRetryInterval().toNanos();
+        while (running) {
+            try {
+                // Producer burada oluşur; metadata isteği max.block.ms kadar bloklayabilir
+                kafkaTemplate.partitionsFor(topic);
+                drain();
+                return;
+            } catch (Exception e) {
+                log.debug("Kafka producer not ready yet: {}", e.toString());
+                LockSupport.parkNanos(retryNanos);
+            }
+        }
+    }
+    
+    private void drain() {
+        synchronized (drainLock) {
+            Pending pending;
+            while ((pending = buffer.poll()) != null) {
+                forward(pending);
+            }
+            ready = true;
+        }
+        log.debug("Kafka producer ready for topic {}", topic);
+    }
+    
+    private void forward(Pending pending) {
+        try {
+            sendNow(pending.key, pending.payload, pending.headers).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    pending.result.completeExceptionally(ex);
+                } else {
+                    pending.result.complete(result);
+                }
+            });
+        } catch (Exception e) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+    
+    private static final class Pending {
+        private final String key;
+        private final byte[] payload;
+        private final Headers headers;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        
+        private Pending(String key, byte[] payload, Headers headers) {
+            this.key = key;
+            this.payload = payload;
+            this.headers = headers;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.exception.handler.capture;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class KafkaListenerCaptureInterceptorTest {
+    
+    private final ExceptionCaptureReporter reporter = mock(ExceptionCaptureReporter.class);
+    private final KafkaListenerCaptureInterceptor interceptor = new KafkaListenerCaptureInterceptor(reporter);
+    
+    private static ConsumerRecord<Object, Object> record(long offset) {
+        return new ConsumerRecord<>("orders", 2, offset, "key", "value");
+    }
+    
+    // DefaultErrorHandler her denemede listener'ı yeniden çağırır, her seferinde yeni bir exception gelir
+    private void fail(ConsumerRecord<Object, Object> record) {
+        interceptor.failure(record, new ListenerExecutionFailedException("listener failed",
+            new IllegalStateException("boom")), null);
+    }
+    
+    @Test
+    void retriesOfTheSameRecordAreReportedOnce() {
+        ConsumerRecord<Object, Object> record = record(10);
+        fail(record);
+        fail(record);
+        fail(record);
+        
+        verify(reporter, times(1)).report(any(IllegalStateException.class), eq("kafka"), eq(false), eq(Map.of(
+            "topic", "orders", "partition", 2, "offset", 10L, "deliveryAttempt", 1)));
+    }
+    
+    @Test
+    void otherOffsetsAreReportedSeparately() {
+        fail(record(10));
+        fail(record(11));
+        fail(record(10));
+        
+        verify(reporter, times(2)).report(any(), anyString(), anyBoolean(), any());
+    }
+    
+    @Test
+    void deliveryAttemptHeaderIsUsedWhenPresent() {
+        ConsumerRecord<Object, Object> record = record(10);
+        record.headers().add(KafkaHeaders.DELIVERY_ATTEMPT, ByteBuffer.allocate(Integer.BYTES).putInt(3).array());
+        fail(record);
+        
+        verify(reporter).report(any(IllegalStateException.class), eq("kafka"), eq(false), eq(Map.of(
+            "topic", "orders", "partition", 2, "offset", 10L, "deliveryAttempt", 3)));
+    }
+    
+    @Test
+    void batchRetriesAreKeyedByTheFirstRecord() {
+        ConsumerRecords<Object, Object> batch = new ConsumerRecords<>(Map.of(
+            new TopicPartition("orders", 2), List.of(record(20), record(21))));
+        interceptor.failure(batch, new IllegalStateException("boom"), null);
+        interceptor.failure(batch, new IllegalStateException("boom"), null);
+        
+        verify(reporter, times(1)).report(any(IllegalStateException.class), eq("kafka"), eq(false), eq(Map.of(
+            "batchSize", 2, "topic", "orders", "partition", 2, "offset", 20L, "deliveryAttempt", 1)));
+    }
+}
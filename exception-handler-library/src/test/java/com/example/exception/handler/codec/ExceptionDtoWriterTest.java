@@ -0,0 +1,153 @@
+package com.example.exception.handler.codec;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.ExceptionDto;
+import com.example.exception.handler.redaction.Redactor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExceptionDtoWriterTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    private static ExceptionHandlerProperties.Limits limits() {
+        ExceptionHandlerProperties.Limits limits = new ExceptionHandlerProperties.Limits();
+        limits.setMaxStringLength(10);
+        limits.setMaxCollectionSize(3);
+        limits.setMaxDepth(3);
+        return limits;
+    }
+    
+    private static ExceptionDto dto(Map<String, Object> additionalData) {
+        ExceptionDto dto = new ExceptionDto();
+        dto.setId("id-1");
+        dto.setExceptionType("IllegalStateException");
+        dto.setTimestamp(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        dto.setAdditionalData(additionalData);
+        return dto;
+    }
+    
+    private JsonNode additionalData(ExceptionDtoCodec codec, ExceptionDto dto) throws Exception {
+        byte[] bytes = codec.encode(dto);
+        ObjectMapper reader = codec.getFormat() == WireFormat.SMILE ? new ObjectMapper(new SmileFactory()) : objectMapper;
+        return reader.readTree(bytes).get("additionalData");
+    }
+    
+    public static class Order {
+        
+        private final String note;
+        private final List<String> lines;
+        private final Order parent;
+        
+        Order(String note, List<String> lines, Order parent) {
+            this.note = note;
+            this.lines = lines;
+            this.parent = parent;
+        }
+        
+        public String getNote() {
+            return note;
+        }
+        
+        public List<String> getLines() {
+            return lines;
+        }
+        
+        public Order getParent() {
+            return parent;
+        }
+    }
+    
+    public static class UserDto {
+        
+        public String name = "ayse";
+        public String password = "hunter2";
+        public String apiToken = "t-123";
+        public String note = "login with password=hunter2 failed";
+    }
+    
+    @Test
+    void pojoValuesAreLimitedLikeMaps() throws Exception {
+        Order root = new Order("root", List.of(), null);
+        Order order = new Order("x".repeat(50), List.of("a", "b", "c", "d", "e"), new Order("child", List.of(), root));
+        Map<String, Object> data = new HashMap<>();
+        data.put("order", order);
+        
+        for (WireFormat format : WireFormat.values()) {
+            ExceptionDtoCodec codec = new ExceptionDtoCodec(objectMapper, format, new ExceptionDtoWriter(null, limits()));
+            JsonNode written = additionalData(codec, dto(data)).get("order");
+            
+            assertEquals("x".repeat(10) + "...[truncated 40 chars]", written.get("note").asText());
+            assertEquals(4, written.get("lines").size());
+            assertEquals("[2 more]", written.get("lines").get(3).asText());
+            // order depth 2, parent 3, parent.parent 4 > maxDepth
+            assertEquals("child", written.get("parent").get("note").asText());
+            assertEquals(ExceptionDtoWriter.MAX_DEPTH_MARKER, written.get("parent").get("parent").asText());
+        }
+    }
+    
+    @Test
+    void pojoValuesStopAtMaxEventBytes() throws Exception {
+        ExceptionHandlerProperties.Limits limits = limits();
+        limits.setMaxCollectionSize(0);
+        limits.setMaxEventBytes(1024);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            lines.add("line-" + i);
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("order", new Order("big", lines, null));
+        
+        ExceptionDtoCodec codec = new ExceptionDtoCodec(objectMapper, WireFormat.JSON, new ExceptionDtoWriter(null, limits));
+        byte[] bytes = codec.encode(dto(data));
+        
+        assertTrue(bytes.length < 2048, "event " + bytes.length + " bytes");
+        JsonNode written = objectMapper.readTree(bytes).get("additionalData").get("order").get("lines");
+        assertTrue(written.get(written.size() - 1).asText().endsWith(" more]"));
+    }
+    
+    @Test
+    void javaTimeValuesKeepTheirSerializedForm() throws Exception {
+        Map<String, Object> data = new HashMap<>();
+        data.put("at", LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        ExceptionHandlerProperties.Limits limits = new ExceptionHandlerProperties.Limits();
+        
+        ExceptionDtoCodec codec = new ExceptionDtoCodec(objectMapper, WireFormat.JSON, new ExceptionDtoWriter(null, limits));
+        
+        assertEquals(objectMapper.valueToTree(data.get("at")), additionalData(codec, dto(data)).get("at"));
+    }
+    
+    @Test
+    void pojoFieldsAreRedactedLikeMapEntries() throws Exception {
+        Redactor redactor = Redactor.compile(new ExceptionHandlerProperties.Redaction());
+        Map<String, Object> data = new HashMap<>();
+        data.put("user", new UserDto());
+        data.put("users", List.of(new UserDto()));
+        
+        for (WireFormat format : WireFormat.values()) {
+            ExceptionDtoCodec codec = new ExceptionDtoCodec(objectMapper, format,
+                new ExceptionDtoWriter(null, new ExceptionHandlerProperties.Limits(), redactor));
+            JsonNode written = additionalData(codec, dto(data));
+            
+            for (JsonNode user : List.of(written.get("user"), written.get("users").get(0))) {
+                assertEquals("ayse", user.get("name").asText());
+                assertEquals(redactor.getMask(), user.get("password").asText());
+                assertEquals(redactor.getMask(), user.get("apiToken").asText());
+                assertFalse(user.get("note").asText().contains("hunter2"));
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.exception.handler.codec;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.ExceptionDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaticMetadataTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    private static ExceptionHandlerProperties properties() {
+        ExceptionHandlerProperties properties = new ExceptionHandlerProperties();
+        properties.setProjectName("shop");
+        properties.setComponentName("orders");
+        properties.setPodName("orders-0");
+        properties.setEnvironment("PRÖD \"eu\"");
+        return properties;
+    }
+    
+    private static ExceptionDto dto(ExceptionHandlerProperties properties) {
+        ExceptionDto dto = new ExceptionDto();
+        dto.setId("id-1");
+        dto.setExceptionType("IllegalStateException");
+        dto.setMessage("boom");
+        dto.setTimestamp(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        // Aynı içerikte ama farklı String instance'ları
+        dto.setProjectName(new String(properties.getProjectName()));
+        dto.setComponentName(new String(properties.getComponentName()));
+        dto.setPodName(new String(properties.getPodName()));
+        dto.setEnvironment(new String(properties.getEnvironment()));
+        return dto;
+    }
+    
+    @Test
+    void equalValuesMatchEvenWhenNotSameInstance() {
+        ExceptionHandlerProperties properties = properties();
+        StaticMetadata metadata = StaticMetadata.from(properties);
+        ExceptionDto dto = dto(properties);
+        assertTrue(metadata.matches(dto));
+        
+        dto.setPodName("orders-1");
+        assertFalse(metadata.matches(dto));
+        dto.setPodName(null);
+        assertFalse(metadata.matches(dto));
+    }
+    
+    @Test
+    void rawBlockProducesSameJsonAsFieldByFieldWriting() throws Exception {
+        ExceptionHandlerProperties properties = properties();
+        ExceptionDto dto = dto(properties);
+        
+        byte[] withMetadata = new ExceptionDtoCodec(objectMapper, WireFormat.JSON,
+            new ExceptionDtoWriter(StaticMetadata.from(properties))).encode(dto);
+        byte[] withoutMetadata = new ExceptionDtoCodec(objectMapper, WireFormat.JSON,
+            new ExceptionDtoWriter(null)).encode(dto);
+        
+        assertEquals(objectMapper.readTree(withoutMetadata), objectMapper.readTree(withMetadata));
+        assertTrue(new String(withMetadata, StandardCharsets.UTF_8).contains("\"environment\":\"PRÖD \\\"eu\\\"\""));
+    }
+    
+    @Test
+    void rawBlockWritesToByteAndCharGenerators() throws Exception {
+        StaticMetadata metadata = StaticMetadata.from(properties());
+        JsonFactory factory = new JsonFactory();
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JsonGenerator gen = factory.createGenerator(bytes)) {
+            gen.writeStartObject();
+            gen.writeStringField("id", "x");
+            metadata.write(gen);
+            gen.writeEndObject();
+        }
+        StringWriter chars = new StringWriter();
+        try (JsonGenerator gen = factory.createGenerator(chars)) {
+            gen.writeStartObject();
+            gen.writeStringField("id", "x");
+            metadata.write(gen);
+            gen.writeEndObject();
+        }
+        
+        String expected = "{\"id\":\"x\",\"projectName\":\"shop\",\"componentName\":\"orders\","
+            + "\"podName\":\"orders-0\",\"environment\":\"PRÖD \\\"eu\\\"\"}";
+        assertEquals(expected, bytes.toString(StandardCharsets.UTF_8));
+        assertEquals(expected, chars.toString());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.exception.handler.redaction;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedactorTest {
+    
+    private static final String MASK = "***MASKED***";
+    
+    private final Redactor redactor = Redactor.compile(new ExceptionHandlerProperties.Redaction());
+    
+    @Test
+    void cleanTextIsReturnedAsIs() {
+        String clean = "Order 12345 failed at com.example.Foo@1a2b3c for user id 42";
+        assertSame(clean, redactor.redact(clean));
+        assertEquals("ünïcode ok şğ", redactor.redact("ünïcode ok şğ"));
+    }
+    
+    @Test
+    void keyValuePairs() {
+        assertEquals("password=" + MASK + "&x=1", redactor.redact("password=hunter2&x=1"));
+        assertEquals("{\"Password\": \"" + MASK + "\"}", redactor.redact("{\"Password\": \"hunter2\"}"));
+        assertEquals("/api?access_token=" + MASK + "&a=b", redactor.redact("/api?access_token=xyz&a=b"));
+        assertEquals("Authorization: Bearer " + MASK + " next", redactor.redact("Authorization: Bearer abc.def next"));
+        assertEquals("got bearer " + MASK, redactor.redact("got bearer abc123"));
+        // Key'den sonra ayırıcı yoksa maskelenmez
+        assertEquals("tokenizer: ok", redactor.redact("tokenizer: ok"));
+    }
+    
+    @Test
+    void keysMatchInsideLongerWordsAndAfterPartialMatches() {
+        // "pas" ile başlayan yarım eşleşmeden sonra failure link'le "password" bulunmalı
+        assertEquals("paspassword=" + MASK, redactor.redact("paspassword=x"));
+        assertEquals("db_secret: " + MASK, redactor.redact("db_secret: s3"));
+        assertTrue(redactor.isSensitiveKey("X-Auth-Token"));
+        assertTrue(redactor.isSensitiveKey("user_PASSWORD"));
+        assertTrue(redactor.isSensitiveKey("x-api-key"));
+        assertFalse(redactor.isSensitiveKey("orderId"));
+        assertFalse(redactor.isSensitiveKey(null));
+    }
+    
+    @Test
+    void cardNumbersRequireLuhn() {
+        assertEquals("card " + MASK + " declined", redactor.redact("card 4111 1111 1111 1111 declined"));
+        assertEquals("card " + MASK, redactor.redact("card 4111-1111-1111-1111"));
+        // 13 haneli geçerli numara
+        assertEquals("card " + MASK, redactor.redact("card 4222222222222"));
+        // Luhn tutmuyor
+        assertEquals("ts 4111111111111112", redactor.redact("ts 4111111111111112"));
+        // İlk hane 2-6 değil (epoch millis gibi)
+        assertEquals("ts 1697500000000123", redactor.redact("ts 1697500000000123"));
+        // 12 hane yetmez
+        assertEquals("id 411111111111", redactor.redact("id 411111111111"));
+    }
+    
+    @Test
+    void emailsAndJwts() {
+        assertEquals("mail " + MASK + ", ok", redactor.redact("mail john.doe+x@mail.example.com, ok"));
+        assertEquals("not a@b or a@b.c", redactor.redact("not a@b or a@b.c"));
+        assertEquals("jwt " + MASK + " end", redactor.redact("jwt eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiIxIn0.sig-_x end"));
+        // Tek segment JWT değildir
+        assertEquals("eyJonly", redactor.redact("eyJonly"));
+    }
+    
+    @Test
+    void recognizersCanBeDisabled() {
+        ExceptionHandlerProperties.Redaction config = new ExceptionHandlerProperties.Redaction();
+        config.setCardNumbers(false);
+        config.setEmails(false);
+        config.setJwts(false);
+        Redactor keysOnly = Redactor.compile(config);
+        String text = "card 4111111111111111 mail a@example.com jwt eyJa.eyJb.c";
+        assertEquals(text, keysOnly.redact(text));
+        
+        config.setEnabled(false);
+        assertNull(Redactor.compile(config));
+    }
+    
+    @Test
+    void customPatternsRunAfterScan() {
+        ExceptionHandlerProperties.Redaction config = new ExceptionHandlerProperties.Redaction();
+        config.setPatterns(List.of("SSN-\\d{3}", "acct#\\d+"));
+        config.setMask("#");
+        assertEquals("x # y # password=#", Redactor.compile(config).redact("x SSN-123 y acct#99 password=p"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.codec.ExceptionDtoCodec;
+import com.example.exception.handler.codec.WireFormat;
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.ExceptionDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExceptionEnvelopeBatcherTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<byte[]> sent = new ArrayList<>();
+    private final List<Integer> counts = new ArrayList<>();
+    
+    private ExceptionEnvelopeBatcher batcher(WireFormat format, int maxEvents) {
+        ExceptionHandlerProperties.Envelope config = new ExceptionHandlerProperties.Envelope();
+        config.setMaxEvents(maxEvents);
+        config.setLinger(Duration.ofMinutes(1));
+        return new ExceptionEnvelopeBatcher(config, new ExceptionDtoCodec(objectMapper, format), (key, payload, count) -> {
+            sent.add(payload);
+            counts.add(count);
+        });
+    }
+    
+    private static ExceptionDto dto(String id, Object value) {
+        ExceptionDto dto = new ExceptionDto();
+        dto.setId(id);
+        dto.setExceptionType("IllegalStateException");
+        dto.setMessage("message " + id);
+        dto.setTimestamp(LocalDateTime.of(2024, 1, 1, 12, 0));
+        dto.setAdditionalData(Map.of("value", value));
+        return dto;
+    }
+    
+    private JsonNode read(WireFormat format, byte[] payload) throws Exception {
+        return (format == WireFormat.SMILE ? new ObjectMapper(new SmileFactory()) : objectMapper).readTree(payload);
+    }
+    
+    // Serialize edilirken hata veren bir POJO
+    public static class Unserializable {
+        public String getValue() {
+            throw new IllegalStateException("getter failed");
+        }
+    }
+    
+    @Test
+    void failedEventDoesNotDropTheEnvelope() throws Exception {
+        for (WireFormat format : WireFormat.values()) {
+            sent.clear();
+            counts.clear();
+            ExceptionEnvelopeBatcher batcher = batcher(format, 2);
+            
+            batcher.add(null, dto("a", "first"));
+            assertThrows(Exception.class, () -> batcher.add(null, dto("bad", new Unserializable())));
+            batcher.add(null, dto("b", List.of(1, 2)));
+            batcher.close();
+            
+            assertEquals(List.of(2), counts, format.name());
+            JsonNode events = read(format, sent.get(0)).path("events");
+            assertEquals(2, events.size(), format.name());
+            assertEquals("a", events.get(0).path("id").asText());
+            assertEquals("first", events.get(0).path("additionalData").path("value").asText());
+            assertEquals("b", events.get(1).path("id").asText());
+            assertEquals(2, events.get(1).path("additionalData").path("value").get(1).asInt());
+        }
+    }
+    
+    @Test
+    void splicedSmileEventsRepeatNamesAndValues() throws Exception {
+        ExceptionEnvelopeBatcher batcher = batcher(WireFormat.SMILE, 3);
+        
+        // Aynı isim ve kısa değerler: paylaşılan referanslar açık olsaydı ikinci event ilkine referans verirdi
+        batcher.add("k", dto("same", "value"));
+        batcher.add("k", dto("same", "value"));
+        batcher.add("k", dto("same", "value"));
+        
+        JsonNode events = read(WireFormat.SMILE, sent.get(0)).path("events");
+        assertEquals(3, events.size());
+        for (JsonNode event : events) {
+            assertEquals("same", event.path("id").asText());
+            assertEquals("value", event.path("additionalData").path("value").asText());
+        }
+        batcher.close();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.id.TimeOrderedIdGenerator;
+import com.example.exception.handler.metrics.ExceptionHandlerMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExceptionHandlerTest {
+    
+    private final MockProducer<String, byte[]> producer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer()) {
+        @Override
+        public void close(Duration timeout) {
+        }
+    };
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    private ExceptionHandler handler(ExceptionHandlerProperties properties) {
+        return handler(properties, ExceptionHandlerMetrics.NOOP);
+    }
+    
+    private ExceptionHandler handler(ExceptionHandlerProperties properties, ExceptionHandlerMetrics metrics) {
+        properties.getKafka().getProducer().setLazyInit(false);
+        ProducerFactory<String, byte[]> factory = new ProducerFactory<>() {
+            @Override
+            public Producer<String, byte[]> createProducer() {
+                return producer;
+            }
+        };
+        return new ExceptionHandler(new KafkaTemplate<>(factory), properties, objectMapper, new TimeOrderedIdGenerator(), metrics);
+    }
+    
+    @Test
+    void additionalDataIsCopiedWhenEventIsAggregated() throws Exception {
+        ExceptionHandlerProperties properties = new ExceptionHandlerProperties();
+        properties.getAggregation().setEnabled(true);
+        properties.getAggregation().setWindow(Duration.ofMinutes(1));
+        ExceptionHandler handler = handler(properties);
+        
+        Map<String, Object> additionalData = new HashMap<>();
+        additionalData.put("orderId", "first");
+        handler.handle(new IllegalStateException("boom"), additionalData);
+        // Çağıran map'i tekrar kullanır; pencere kapanınca ilk değer gönderilmeli
+        additionalData.put("orderId", "second");
+        additionalData.put("extra", "late");
+        handler.destroy();
+        
+        assertEquals(1, producer.history().size());
+        JsonNode event = objectMapper.readTree(producer.history().get(0).value());
+        assertEquals("first", event.path("additionalData").path("orderId").asText());
+        assertEquals(false, event.path("additionalData").has("extra"));
+    }
+    
+    public static class Unserializable {
+        public String getValue() {
+            throw new IllegalStateException("getter failed");
+        }
+    }
+    
+    @Test
+    void unserializableEventIsCountedAndEnvelopeIsKept() throws Exception {
+        ExceptionHandlerProperties properties = new ExceptionHandlerProperties();
+        properties.getKafka().getEnvelope().setEnabled(true);
+        properties.getKafka().getEnvelope().setLinger(Duration.ofMinutes(1));
+        AtomicInteger failed = new AtomicInteger();
+        ExceptionHandler handler = handler(properties, new ExceptionHandlerMetrics() {
+            @Override
+            public void eventFailed(String type, int count) {
+                failed.addAndGet(count);
+            }
+        });
+        
+        handler.handle(new IllegalStateException("first"));
+        handler.handle(new IllegalStateException("bad"), Map.of("user", new Unserializable()));
+        handler.handle(new IllegalStateException("last"));
+        handler.destroy();
+        
+        assertEquals(1, failed.get());
+        assertEquals(1, producer.history().size());
+        JsonNode events = objectMapper.readTree(producer.history().get(0).value()).path("events");
+        assertEquals(2, events.size());
+        assertEquals("first", events.get(0).path("message").asText());
+        assertEquals("last", events.get(1).path("message").asText());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExceptionSamplerTest {
+    
+    private static ExceptionSampler sampler() {
+        ExceptionHandlerProperties.Sampling config = new ExceptionHandlerProperties.Sampling();
+        // Tek token, yeniden dolması test süresinden uzun
+        config.setMaxEventsPerSecond(0.001);
+        config.setBurst(1);
+        return new ExceptionSampler(config, null);
+    }
+    
+    private static StackTraceElement frame(int line) {
+        return new StackTraceElement("com.example.Service", "call", "Service.java", line);
+    }
+    
+    @Test
+    void keysOnTheFramesPassedByTheCaller() {
+        ExceptionSampler sampler = sampler();
+        RuntimeException exception = new RuntimeException("boom");
+        
+        assertEquals(0, sampler.tryAcquire(exception, new StackTraceElement[] {frame(10)}));
+        assertEquals(ExceptionSampler.REJECTED, sampler.tryAcquire(exception, new StackTraceElement[] {frame(10)}));
+        // Aynı Throwable, farklı fırlatan frame: ayrı bucket
+        assertEquals(0, sampler.tryAcquire(exception, new StackTraceElement[] {frame(20)}));
+        assertEquals(1, sampler.getSampledOutCount());
+    }
+    
+    @Test
+    void emptyTraceSharesOneKeyPerType() {
+        ExceptionSampler sampler = sampler();
+        
+        assertEquals(0, sampler.tryAcquire(new IllegalStateException(), new StackTraceElement[0]));
+        assertEquals(ExceptionSampler.REJECTED, sampler.tryAcquire(new IllegalStateException(), new StackTraceElement[0]));
+        assertEquals(0, sampler.tryAcquire(new IllegalArgumentException(), new StackTraceElement[0]));
+    }
+}
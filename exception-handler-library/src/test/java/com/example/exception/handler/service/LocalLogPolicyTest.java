@@ -0,0 +1,79 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.example.exception.handler.dto.ExceptionDto;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class LocalLogPolicyTest {
+    
+    private static final String SUMMARY = "Suppressed {} occurrences of {} [{}] in last {}s";
+    
+    private final Logger logger = mock(Logger.class);
+    private final IllegalStateException exception = new IllegalStateException("boom");
+    
+    private LocalLogPolicy policy(ExceptionHandlerProperties.LocalLogMode mode, Duration interval) {
+        ExceptionHandlerProperties.LocalLog config = new ExceptionHandlerProperties.LocalLog();
+        config.setMode(mode);
+        config.setInterval(interval);
+        return new LocalLogPolicy(config, logger);
+    }
+    
+    private static ExceptionDto dto() {
+        ExceptionDto dto = new ExceptionDto();
+        dto.setExceptionType("IllegalStateException");
+        dto.setMessage("boom");
+        dto.setFingerprint("fp");
+        return dto;
+    }
+    
+    @Test
+    void summaryIsWrittenAfterTheStormStops() {
+        LocalLogPolicy policy = policy(ExceptionHandlerProperties.LocalLogMode.FIRST_OCCURRENCE, Duration.ofMillis(100));
+        
+        policy.log(dto(), exception, false);
+        policy.log(dto(), exception, false);
+        policy.log(dto(), exception, false);
+        policy.log(dto(), exception, false);
+        
+        // Aynı fingerprint bir daha gelmez; özet yine de yazılır
+        verify(logger, timeout(2000)).error(eq(SUMMARY), eq(3L), eq("IllegalStateException"), eq("fp"), anyLong());
+        policy.close();
+    }
+    
+    @Test
+    void rateLimitedSummaryIsWrittenWithoutANewEvent() {
+        LocalLogPolicy policy = policy(ExceptionHandlerProperties.LocalLogMode.RATE_LIMITED, Duration.ofMillis(100));
+        
+        policy.log(dto(), exception, false);
+        policy.log(dto(), exception, false);
+        policy.log(dto(), exception, false);
+        
+        verify(logger, timeout(2000)).error(eq(SUMMARY), eq(2L), eq("IllegalStateException"), eq("fp"), anyLong());
+        policy.close();
+    }
+    
+    @Test
+    void summaryReportsElapsedTimeRatherThanInterval() throws InterruptedException {
+        LocalLogPolicy policy = policy(ExceptionHandlerProperties.LocalLogMode.FIRST_OCCURRENCE, Duration.ofHours(1));
+        
+        policy.log(dto(), exception, false);
+        policy.log(dto(), exception, false);
+        policy.log(dto(), exception, false);
+        Thread.sleep(2100);
+        policy.close();
+        
+        verify(logger).error(eq(SUMMARY), eq(2L), eq("IllegalStateException"), eq("fp"), eq(2L));
+        verify(logger, never()).error(eq(SUMMARY), any(), any(), any(), eq(3600L));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.exception.handler.service;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StackTraceCaptureTest {
+    
+    private static StackTraceCapture capture(int maxDepth, int maxCauseDepth) {
+        ExceptionHandlerProperties.StackTrace config = new ExceptionHandlerProperties.StackTrace();
+        config.setMaxDepth(maxDepth);
+        config.setMaxCauseDepth(maxCauseDepth);
+        config.setCollapseFrameworkFrames(false);
+        return new StackTraceCapture(config);
+    }
+    
+    private static String printStackTrace(Throwable throwable) {
+        StringWriter writer = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(writer));
+        return writer.toString().replace(System.lineSeparator(), "\n");
+    }
+    
+    private static IllegalStateException withSuppressed() {
+        IllegalStateException primary = new IllegalStateException("primary");
+        RuntimeException closeFailure = new RuntimeException("close failed", new IllegalArgumentException("root"));
+        closeFailure.addSuppressed(new UnsupportedOperationException("nested"));
+        primary.addSuppressed(closeFailure);
+        primary.initCause(new RuntimeException("cause"));
+        return primary;
+    }
+    
+    @Test
+    void rendersLikePrintStackTraceWhenUncapped() {
+        IllegalStateException exception = withSuppressed();
+        
+        String rendered = capture(1000, 10).capture(exception).getRendered();
+        
+        assertEquals(printStackTrace(exception), rendered);
+    }
+    
+    @Test
+    void suppressedFramesAreNotInTheFrameList() {
+        IllegalStateException exception = withSuppressed();
+        
+        StackTraceCapture.CapturedStack stack = capture(1000, 10).capture(exception);
+        
+        assertTrue(stack.getRendered().contains("\tSuppressed: java.lang.RuntimeException: close failed\n"));
+        assertTrue(stack.getRendered().contains("\t\tSuppressed: java.lang.UnsupportedOperationException: nested\n"));
+        assertTrue(stack.getRendered().contains("\tCaused by: java.lang.IllegalArgumentException: root\n"));
+        // Kök exception'ın frame'leri + cause'un ortak olmayan tek frame'i
+        assertEquals(exception.getStackTrace().length + 1, stack.getFrames().size());
+        assertTrue(stack.getFrames().stream().allMatch(frame -> frame.getCauseIndex() <= 1));
+    }
+    
+    @Test
+    void suppressedCountTowardCauseDepth() {
+        IllegalStateException exception = withSuppressed();
+        
+        String rendered = capture(1000, 1).capture(exception).getRendered();
+        
+        assertTrue(rendered.contains("\tSuppressed: java.lang.RuntimeException: close failed\n"));
+        assertTrue(rendered.contains("\t\t... 1 suppressed truncated\n"));
+        assertTrue(rendered.contains("\t\t... cause chain truncated\n"));
+        assertFalse(rendered.contains("root"));
+        assertFalse(rendered.contains("nested"));
+    }
+    
+    @Test
+    void suppressedFramesUseTheSameDepthCap() {
+        IllegalStateException exception = new IllegalStateException("primary");
+        exception.addSuppressed(deep(5));
+        
+        String rendered = capture(2, 10).capture(exception).getRendered();
+        
+        String[] lines = rendered.substring(rendered.indexOf("\tSuppressed: ")).split("\n");
+        assertTrue(lines[1].startsWith("\t\tat "));
+        assertTrue(lines[2].startsWith("\t\tat "));
+        assertEquals("\t\t... 5 more frames truncated", lines[3]);
+    }
+    
+    private static RuntimeException deep(int depth) {
+        return depth == 0 ? new RuntimeException("deep") : deep(depth - 1);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.exception.handler.spool;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(value = 10, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+class ExceptionSpoolTest {
+    
+    @TempDir
+    Path directory;
+    
+    private ExceptionSpool open() throws IOException {
+        ExceptionHandlerProperties.Spool config = new ExceptionHandlerProperties.Spool();
+        config.setDirectory(directory.toString());
+        config.setSegmentSize(4096);
+        return new ExceptionSpool(config);
+    }
+    
+    private static SpooledRecord record(String payload) {
+        return new SpooledRecord("key-" + payload, null, payload.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String payload(SpooledRecord record) {
+        return new String(record.getPayload(), StandardCharsets.UTF_8);
+    }
+    
+    private Path writeThree() throws IOException {
+        ExceptionSpool spool = open();
+        spool.append(record("a"));
+        spool.append(record("b"));
+        spool.append(record("c"));
+        spool.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.filter(path -> path.toString().endsWith(".seg")).collect(Collectors.toList());
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+    
+    // n'inci kaydın length prefix'inin dosyadaki yeri
+    private static int lengthOffset(Path segment, int index) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "r")) {
+            int pos = SpoolSegment.HEADER_SIZE;
+            for (int i = 0; i < index; i++) {
+                file.seek(pos);
+                pos += 4 + file.readInt();
+            }
+            return pos;
+        }
+    }
+    
+    private static void writeInt(Path segment, int offset, int value) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(offset);
+            file.writeInt(value);
+        }
+    }
+    
+    @Test
+    void continuesAfterReopen() throws IOException {
+        ExceptionSpool spool = open();
+        spool.append(record("a"));
+        spool.append(record("b"));
+        spool.append(record("c"));
+        spool.remove();
+        spool.close();
+        
+        ExceptionSpool reopened = open();
+        assertEquals(2, reopened.size());
+        SpooledRecord next = reopened.peek();
+        assertEquals("b", payload(next));
+        assertEquals("key-b", next.getKey());
+        reopened.remove();
+        assertEquals("c", payload(reopened.peek()));
+        reopened.close();
+    }
+    
+    @Test
+    void truncatesAtCorruptLength() throws IOException {
+        Path segment = writeThree();
+        writeInt(segment, lengthOffset(segment, 2), 1_000_000);
+        
+        ExceptionSpool spool = open();
+        assertEquals(2, spool.size());
+        assertEquals("a", payload(spool.peek()));
+        spool.remove();
+        assertEquals("b", payload(spool.peek()));
+        spool.remove();
+        assertTrue(spool.isEmpty());
+        // Kesilen yerden yazmaya devam edilir
+        spool.append(record("d"));
+        assertEquals("d", payload(spool.peek()));
+        spool.close();
+    }
+    
+    @Test
+    void lengthThatWouldNotAdvanceIsRejected() throws IOException {
+        Path segment = writeThree();
+        writeInt(segment, lengthOffset(segment, 0), -4);
+        
+        ExceptionSpool spool = open();
+        assertTrue(spool.isEmpty());
+        spool.close();
+    }
+    
+    @Test
+    void readPositionOffRecordBoundaryReplaysSegment() throws IOException {
+        Path segment = writeThree();
+        writeInt(segment, 8, SpoolSegment.HEADER_SIZE + 1);
+        
+        ExceptionSpool spool = open();
+        assertEquals(3, spool.size());
+        assertEquals("a", payload(spool.peek()));
+        spool.close();
+    }
+}
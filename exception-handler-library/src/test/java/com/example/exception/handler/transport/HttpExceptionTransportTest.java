@@ -0,0 +1,94 @@
+package com.example.exception.handler.transport;
+
+import com.example.exception.handler.config.ExceptionHandlerProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpExceptionTransportTest {
+    
+    private HttpServer server;
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        server.stop(0);
+    }
+    
+    private ExceptionHandlerProperties.Http start(boolean hang, AtomicInteger requests) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/ingest", exchange -> {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            if (hang) {
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(202, -1);
+            exchange.close();
+        });
+        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        server.start();
+        
+        ExceptionHandlerProperties.Http config = new ExceptionHandlerProperties.Http();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api/ingest");
+        config.setLinger(Duration.ofMillis(10));
+        config.setTimeout(Duration.ofSeconds(30));
+        config.setShutdownTimeout(Duration.ofMillis(500));
+        return config;
+    }
+    
+    private static byte[] payload(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Test
+    void closeSendsQueuedRecords() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpExceptionTransport transport = new HttpExceptionTransport(start(false, requests));
+        CompletableFuture<?> first = transport.send("a", payload("1"), null);
+        CompletableFuture<?> second = transport.send("b", payload("2"), null);
+        transport.close();
+        
+        first.get(1, TimeUnit.SECONDS);
+        second.get(1, TimeUnit.SECONDS);
+        assertTrue(requests.get() >= 1);
+    }
+    
+    @Test
+    void closeInterruptsHangingRequestAfterShutdownTimeout() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpExceptionTransport transport = new HttpExceptionTransport(start(true, requests));
+        CompletableFuture<?> inFlight = transport.send("a", payload("1"), null);
+        while (requests.get() == 0) {
+            Thread.sleep(10);
+        }
+        CompletableFuture<?> queued = transport.send("b", payload("2"), null);
+        
+        long start = System.nanoTime();
+        transport.close();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        // İsteğin 30s timeout'u beklenmez
+        assertTrue(elapsedMillis < 5000, "close took " + elapsedMillis + "ms");
+        assertTrue(inFlight.isCompletedExceptionally());
+        assertTrue(queued.isCompletedExceptionally());
+        assertEquals(1, requests.get());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.exception.monitor.config;
+
+import com.example.exception.monitor.service.KafkaConsumerService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Consumer;
+
+@Configuration
+public class IngestConfig {
+    
+    // HTTP ve in-process transport'lar bu isimle arar; Kafka listener'ı ile aynı pipeline
+    @Bean
+    public Consumer<ConsumerRecord<String, byte[]>> exceptionIngestSink(KafkaConsumerService kafkaConsumerService) {
+        return kafkaConsumerService::handleExceptionMessage;
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.exception.monitor.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,10 +14,17 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
+@Slf4j
 @EnableKafka
 @Configuration
 public class KafkaConsumerConfig {
@@ -23,23 +35,94 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id:exception-monitor-group}")
     private String groupId;
     
+    // Bir poll'da, dolayısıyla bir transaction'da yazılacak en fazla record
+    @Value("${monitor.kafka.batch.max-records:500}")
+    private int maxBatchRecords;
+    
+    // Broker bu kadar byte birikene ya da max-wait dolana kadar fetch'i bekletir
+    @Value("${monitor.kafka.batch.min-bytes:1}")
+    private int minBatchBytes;
+    
+    @Value("${monitor.kafka.batch.max-wait:500ms}")
+    private Duration maxBatchWait;
+    
+    // Topic'in partition sayısı kadar listener thread'i; fazlası boşta bekler
+    @Value("${monitor.kafka.concurrency:3}")
+    private int concurrency;
+    
+    // DB yazılamazken batch commit edilmeden bu aralıklarla (üstel artan) tekrar denenir
+    @Value("${monitor.kafka.retry.initial-interval:1s}")
+    private Duration retryInitialInterval;
+    
+    @Value("${monitor.kafka.retry.max-interval:30s}")
+    private Duration retryMaxInterval;
+    
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, byte[]> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // Payload JSON ya da Smile olabilir, format record header'ından okunur
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        // Offset'ler DB transaction'ı commit olduktan sonra listener'daki ack ile yazılır
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // Rebalance'ta sadece taşınan partition'lar durur, diğerleri işlenmeye devam eder
+        props.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxBatchRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, minBatchBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) maxBatchWait.toMillis());
         
         return new DefaultKafkaConsumerFactory<>(props);
     }
     
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.setCommonErrorHandler(kafkaErrorHandler());
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setConsumerRebalanceListener(rebalanceListener());
         return factory;
     }
+    
+    // Listener exception fırlatırsa batch commit edilmez, consumer durdurulup aynı batch tekrar denenir.
+    // Süre sınırı yok: DB geri gelene kadar event kaybedilmez
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler() {
+        ExponentialBackOff backOff = new ExponentialBackOff(retryInitialInterval.toMillis(), 2.0);
+        backOff.setMaxInterval(retryMaxInterval.toMillis());
+        return new DefaultErrorHandler(backOff);
+    }
+    
+    // Bekleyen ack'ler revoke'tan önce container tarafından commit edilir; burada sadece izlenir
+    @Bean
+    public ConsumerAwareRebalanceListener rebalanceListener() {
+        return new ConsumerAwareRebalanceListener() {
+            
+            @Override
+            public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                if (!partitions.isEmpty()) {
+                    log.info("Exception partitions revoked: {}", partitions);
+                }
+            }
+            
+            @Override
+            public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                if (!partitions.isEmpty()) {
+                    log.info("Exception partitions assigned: {}", partitions);
+                }
+            }
+            
+            @Override
+            public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                // Commit edilmemiş batch'ler yeni sahibine tekrar gelir; insert-ignore tekrarları atlar
+                log.warn("Exception partitions lost without commit: {}", partitions);
+            }
+        };
+    }
 }
\ No newline at end of file
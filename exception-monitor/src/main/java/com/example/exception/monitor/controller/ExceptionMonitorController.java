@@ -18,7 +18,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -267,6 +269,24 @@ public class ExceptionMonitorController {
                 model.addAttribute("additionalDataParseError", true);
             }
             
+            // Yapısal stack frame'ler (eski producer'larda yok)
+            if (record.getFrames() != null && !record.getFrames().trim().isEmpty()) {
+                try {
+                    model.addAttribute("framesJson", objectMapper.readTree(record.getFrames()));
+                } catch (Exception e) {
+                    log.error("Error parsing frames for exception {}: {}", id, e.getMessage());
+                }
+            }
+            
+            // Aggregate edilmiş event'lerin örnek context'leri
+            if (record.getSamples() != null && !record.getSamples().trim().isEmpty()) {
+                try {
+                    model.addAttribute("samplesJson", objectMapper.readTree(record.getSamples()));
+                } catch (Exception e) {
+                    log.error("Error parsing samples for exception {}: {}", id, e.getMessage());
+                }
+            }
+            
             model.addAttribute("applicationVersion", applicationVersion);
             return "exception-detail";
         } else {
@@ -274,6 +294,21 @@ public class ExceptionMonitorController {
         }
     }
     
+    // Keyset sayfalama: yanıttaki nextBefore değeri bir sonraki isteğin before parametresi olur
+    @GetMapping("/api/exceptions")
+    @org.springframework.web.bind.annotation.ResponseBody
+    public Map<String, Object> listExceptionsJson(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, 500));
+        List<ExceptionRecord> records = exceptionRecordService.findBefore(before, pageSize);
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("items", records);
+        response.put("nextBefore", records.size() == pageSize ? records.get(records.size() - 1).getId() : null);
+        return response;
+    }
+    
     @GetMapping("/api/exceptions/{id}")
     @org.springframework.web.bind.annotation.ResponseBody
     public ExceptionRecord getExceptionJson(@PathVariable String id) {
@@ -0,0 +1,44 @@
+package com.example.exception.monitor.controller;
+
+import com.example.exception.monitor.service.KafkaConsumerService;
+import com.example.exception.monitor.util.IngestBatchReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+// Library'nin HTTP transport'u buraya toplu POST eder; event'ler Kafka batch'i gibi tek transaction'da kaydedilir
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class IngestController {
+    
+    private final KafkaConsumerService kafkaConsumerService;
+    
+    @PostMapping(path = "/api/ingest", consumes = IngestBatchReader.CONTENT_TYPE)
+    public ResponseEntity<Map<String, Object>> ingest(@RequestBody byte[] body) {
+        List<ConsumerRecord<String, byte[]>> records;
+        try {
+            records = IngestBatchReader.read("http", body);
+        } catch (IOException e) {
+            log.warn("Rejected malformed ingest batch of {} bytes: {}", body.length, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", "malformed batch"));
+        }
+        try {
+            kafkaConsumerService.handleExceptionBatch(records);
+        } catch (Exception e) {
+            // Client tarafı event'leri başarısız sayar; veritabanı gelene kadar tekrar göndermez
+            log.error("Error saving ingest batch of {} records", records.size(), e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "storage unavailable"));
+        }
+        return ResponseEntity.accepted().body(Map.of("records", records.size()));
+    }
+}
@@ -8,12 +8,17 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "exception_records")
+@Table(name = "exception_records", indexes = {
+    @Index(name = "idx_exception_records_fingerprint", columnList = "fingerprint"),
+    // id ikinci kolon: keyset sayfalamada aynı timestamp'li kayıtlar da index sırasıyla okunur
+    @Index(name = "idx_exception_records_timestamp", columnList = "timestamp, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ExceptionRecord {
     
+    // Yeni producer'lar time-ordered UUIDv7 gönderir, insert'ler index'in sonuna düşer
     @Id
     private String id;
     
@@ -26,6 +31,10 @@ public class ExceptionRecord {
     @Column(name = "stack_trace", columnDefinition = "TEXT")
     private String stackTrace;
     
+    // Yapısal stack frame listesi (JSON)
+    @Column(name = "frames", columnDefinition = "TEXT")
+    private String frames;
+    
     @Column(name = "timestamp", nullable = false)
     private LocalDateTime timestamp;
     
@@ -65,6 +74,26 @@ public class ExceptionRecord {
     @Column(name = "additional_data", columnDefinition = "TEXT")
     private String additionalData;
     
+    @Column(name = "fingerprint")
+    private String fingerprint;
+    
+    // Client tarafında aggregate edilmiş event'lerde temsil edilen tekrar sayısı
+    @Column(name = "occurrence_count", nullable = false)
+    private Long occurrenceCount = 1L;
+    
+    // occurrenceCount'a dahil, client'ta sampling ile elenen occurrence sayısı
+    @Column(name = "sampled_out_count")
+    private Long sampledOutCount;
+    
+    @Column(name = "first_seen")
+    private LocalDateTime firstSeen;
+    
+    @Column(name = "last_seen")
+    private LocalDateTime lastSeen;
+    
+    @Column(name = "samples", columnDefinition = "TEXT")
+    private String samples;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
@@ -73,5 +102,8 @@ public class ExceptionRecord {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        if (occurrenceCount == null || occurrenceCount < 1) {
+            occurrenceCount = 1L;
+        }
     }
 }
\ No newline at end of file
@@ -27,6 +27,15 @@ public interface ExceptionRecordRepository extends JpaRepository<ExceptionRecord
     
     Page<ExceptionRecord> findByComponentNameOrderByTimestampDesc(String componentName, Pageable pageable);
     
+    // Offset yerine (timestamp, id) üzerinden keyset sayfalama; id yalnızca aynı timestamp'li kayıtları sıralar,
+    // random UUID'li eski kayıtlar da zamanlarına göre yer alır
+    List<ExceptionRecord> findAllByOrderByTimestampDescIdDesc(Pageable pageable);
+    
+    @Query("SELECT e FROM ExceptionRecord e WHERE " +
+           "e.timestamp < :timestamp OR (e.timestamp = :timestamp AND e.id < :id) " +
+           "ORDER BY e.timestamp DESC, e.id DESC")
+    List<ExceptionRecord> findPageBefore(@Param("timestamp") LocalDateTime timestamp, @Param("id") String id, Pageable pageable);
+    
     @Query("SELECT e FROM ExceptionRecord e WHERE " +
            "(:projectName IS NULL OR e.projectName = :projectName) AND " +
            "(:exceptionType IS NULL OR e.exceptionType = :exceptionType) AND " +
@@ -44,78 +53,78 @@ public interface ExceptionRecordRepository extends JpaRepository<ExceptionRecord
         @Param("endDate") LocalDateTime endDate,
         Pageable pageable);
     
-    @Query("SELECT e.exceptionType, COUNT(e) FROM ExceptionRecord e GROUP BY e.exceptionType ORDER BY COUNT(e) DESC")
+    @Query("SELECT e.exceptionType, SUM(e.occurrenceCount) FROM ExceptionRecord e GROUP BY e.exceptionType ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getExceptionTypeStatistics();
     
-    @Query("SELECT e.projectName, COUNT(e) FROM ExceptionRecord e GROUP BY e.projectName ORDER BY COUNT(e) DESC")
+    @Query("SELECT e.projectName, SUM(e.occurrenceCount) FROM ExceptionRecord e GROUP BY e.projectName ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getProjectStatistics();
     
-    @Query("SELECT COUNT(e) FROM ExceptionRecord e WHERE e.timestamp >= :since")
+    @Query("SELECT COALESCE(SUM(e.occurrenceCount), 0) FROM ExceptionRecord e WHERE e.timestamp >= :since")
     Long countExceptionsSince(@Param("since") LocalDateTime since);
     
-    @Query("SELECT e.componentName, COUNT(e) FROM ExceptionRecord e GROUP BY e.componentName ORDER BY COUNT(e) DESC")
+    @Query("SELECT e.componentName, SUM(e.occurrenceCount) FROM ExceptionRecord e GROUP BY e.componentName ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getComponentStatistics();
     
-    @Query("SELECT e.environment, COUNT(e) FROM ExceptionRecord e GROUP BY e.environment ORDER BY COUNT(e) DESC")
+    @Query("SELECT e.environment, SUM(e.occurrenceCount) FROM ExceptionRecord e GROUP BY e.environment ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getEnvironmentStatistics();
     
-    @Query("SELECT e.componentName, COUNT(e) FROM ExceptionRecord e WHERE e.environment = :environment GROUP BY e.componentName ORDER BY COUNT(e) DESC")
+    @Query("SELECT e.componentName, SUM(e.occurrenceCount) FROM ExceptionRecord e WHERE e.environment = :environment GROUP BY e.componentName ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getComponentsByEnvironment(@Param("environment") String environment);
     
-    @Query("SELECT e.podName, e.podIp, COUNT(e) FROM ExceptionRecord e WHERE e.componentName = :componentName GROUP BY e.podName, e.podIp ORDER BY COUNT(e) DESC")
+    @Query("SELECT e.podName, e.podIp, SUM(e.occurrenceCount) FROM ExceptionRecord e WHERE e.componentName = :componentName GROUP BY e.podName, e.podIp ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getPodsByComponent(@Param("componentName") String componentName);
     
-    @Query("SELECT e.projectName, COUNT(e) FROM ExceptionRecord e WHERE e.environment = :environment GROUP BY e.projectName ORDER BY COUNT(e) DESC")
+    @Query("SELECT e.projectName, SUM(e.occurrenceCount) FROM ExceptionRecord e WHERE e.environment = :environment GROUP BY e.projectName ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getProjectsByEnvironment(@Param("environment") String environment);
     
     // Time-based statistics queries
-    @Query("SELECT e.exceptionType, COUNT(e) FROM ExceptionRecord e WHERE " +
+    @Query("SELECT e.exceptionType, SUM(e.occurrenceCount) FROM ExceptionRecord e WHERE " +
            "(:startDate IS NULL OR e.timestamp >= :startDate) AND " +
            "(:endDate IS NULL OR e.timestamp <= :endDate) " +
-           "GROUP BY e.exceptionType ORDER BY COUNT(e) DESC")
+           "GROUP BY e.exceptionType ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getExceptionTypeStatisticsByTimeRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT e.projectName, COUNT(e) FROM ExceptionRecord e WHERE " +
+    @Query("SELECT e.projectName, SUM(e.occurrenceCount) FROM ExceptionRecord e WHERE " +
            "(:startDate IS NULL OR e.timestamp >= :startDate) AND " +
            "(:endDate IS NULL OR e.timestamp <= :endDate) " +
-           "GROUP BY e.projectName ORDER BY COUNT(e) DESC")
+           "GROUP BY e.projectName ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getProjectStatisticsByTimeRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT e.componentName, COUNT(e) FROM ExceptionRecord e WHERE " +
+    @Query("SELECT e.componentName, SUM(e.occurrenceCount) FROM ExceptionRecord e WHERE " +
            "(:startDate IS NULL OR e.timestamp >= :startDate) AND " +
            "(:endDate IS NULL OR e.timestamp <= :endDate) " +
-           "GROUP BY e.componentName ORDER BY COUNT(e) DESC")
+           "GROUP BY e.componentName ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getComponentStatisticsByTimeRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT e.environment, COUNT(e) FROM ExceptionRecord e WHERE " +
+    @Query("SELECT e.environment, SUM(e.occurrenceCount) FROM ExceptionRecord e WHERE " +
            "(:startDate IS NULL OR e.timestamp >= :startDate) AND " +
            "(:endDate IS NULL OR e.timestamp <= :endDate) " +
-           "GROUP BY e.environment ORDER BY COUNT(e) DESC")
+           "GROUP BY e.environment ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getEnvironmentStatisticsByTimeRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT e.componentName, COUNT(e) FROM ExceptionRecord e WHERE " +
+    @Query("SELECT e.componentName, SUM(e.occurrenceCount) FROM ExceptionRecord e WHERE " +
            "e.environment = :environment AND " +
            "(:startDate IS NULL OR e.timestamp >= :startDate) AND " +
            "(:endDate IS NULL OR e.timestamp <= :endDate) " +
-           "GROUP BY e.componentName ORDER BY COUNT(e) DESC")
+           "GROUP BY e.componentName ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getComponentsByEnvironmentAndTimeRange(@Param("environment") String environment, 
                                                          @Param("startDate") LocalDateTime startDate, 
                                                          @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT e.podName, e.podIp, COUNT(e) FROM ExceptionRecord e WHERE " +
+    @Query("SELECT e.podName, e.podIp, SUM(e.occurrenceCount) FROM ExceptionRecord e WHERE " +
            "e.componentName = :componentName AND " +
            "(:startDate IS NULL OR e.timestamp >= :startDate) AND " +
            "(:endDate IS NULL OR e.timestamp <= :endDate) " +
-           "GROUP BY e.podName, e.podIp ORDER BY COUNT(e) DESC")
+           "GROUP BY e.podName, e.podIp ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getPodsByComponentAndTimeRange(@Param("componentName") String componentName,
                                                  @Param("startDate") LocalDateTime startDate, 
                                                  @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT e.projectName, COUNT(e) FROM ExceptionRecord e WHERE " +
+    @Query("SELECT e.projectName, SUM(e.occurrenceCount) FROM ExceptionRecord e WHERE " +
            "e.environment = :environment AND " +
            "(:startDate IS NULL OR e.timestamp >= :startDate) AND " +
            "(:endDate IS NULL OR e.timestamp <= :endDate) " +
-           "GROUP BY e.projectName ORDER BY COUNT(e) DESC")
+           "GROUP BY e.projectName ORDER BY SUM(e.occurrenceCount) DESC")
     List<Object[]> getProjectsByEnvironmentAndTimeRange(@Param("environment") String environment,
                                                        @Param("startDate") LocalDateTime startDate, 
                                                        @Param("endDate") LocalDateTime endDate);
@@ -140,7 +149,11 @@ public interface ExceptionRecordRepository extends JpaRepository<ExceptionRecord
     List<String> findDistinctMethods();
     
     // Count by time range
-    Long countByTimestampBetween(LocalDateTime startDate, LocalDateTime endDate);
+    @Query("SELECT COALESCE(SUM(e.occurrenceCount), 0) FROM ExceptionRecord e WHERE e.timestamp BETWEEN :startDate AND :endDate")
+    Long countOccurrencesBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT COALESCE(SUM(e.occurrenceCount), 0) FROM ExceptionRecord e")
+    Long countOccurrences();
     
     // Extended filter query with service and method
     @Query("SELECT e FROM ExceptionRecord e WHERE " +
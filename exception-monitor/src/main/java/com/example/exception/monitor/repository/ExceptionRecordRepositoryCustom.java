@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public interface ExceptionRecordRepositoryCustom {
     
@@ -20,4 +21,7 @@ public interface ExceptionRecordRepositoryCustom {
         LocalDateTime endDate,
         Pageable pageable
     );
-}
\ No newline at end of file
+    
+    // Ingest yolu: merge/SELECT yok, aynı id ikinci kez gelirse sessizce atlanır. Eklenen satır sayısını döner
+    int insertIgnoringDuplicates(List<ExceptionRecord> records);
+}
@@ -7,16 +7,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @Slf4j
@@ -27,7 +36,17 @@ public class ExceptionRecordRepositoryImpl implements ExceptionRecordRepositoryC
     @PersistenceContext
     private EntityManager entityManager;
     
+    private static final String COLUMNS = "id, exception_type, message, stack_trace, frames, timestamp, "
+        + "project_name, component_name, pod_name, pod_ip, cluster_name, environment, service_name, method, "
+        + "url, user_agent, session_id, additional_data, fingerprint, occurrence_count, sampled_out_count, "
+        + "first_seen, last_seen, samples, created_at";
+    private static final int COLUMN_COUNT = 25;
+    
     private final QueryParser queryParser;
+    private final JdbcTemplate jdbcTemplate;
+    
+    // Veritabanına göre insert-ignore cümlesi, ilk insert'te bir kez belirlenir
+    private volatile String insertSql;
     
     @Override
     public Page<ExceptionRecord> findWithAdvancedQuery(
@@ -132,4 +151,93 @@ public class ExceptionRecordRepositoryImpl implements ExceptionRecordRepositoryC
         
         return new PageImpl<>(results, pageable, total);
     }
-}
\ No newline at end of file
+    
+    @Override
+    public int insertIgnoringDuplicates(List<ExceptionRecord> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int[][] counts = jdbcTemplate.batchUpdate(insertSql(), records, records.size(),
+            (ps, record) -> bind(ps, record, now));
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Bazı driver'lar batch'te satır sayısı yerine SUCCESS_NO_INFO döner
+                inserted += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+            }
+        }
+        if (inserted < records.size()) {
+            log.debug("Skipped {} duplicate exception records", records.size() - inserted);
+        }
+        return inserted;
+    }
+    
+    private String insertSql() {
+        String sql = insertSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+            sql = buildInsertSql(product != null ? product.toLowerCase(Locale.ROOT) : "");
+            insertSql = sql;
+        }
+        return sql;
+    }
+    
+    private static String buildInsertSql(String product) {
+        String placeholders = String.join(", ", Collections.nCopies(COLUMN_COUNT, "?"));
+        if (product.contains("postgres")) {
+            return "INSERT INTO exception_records (" + COLUMNS + ") VALUES (" + placeholders + ") ON CONFLICT (id) DO NOTHING";
+        }
+        if (product.contains("mysql") || product.contains("mariadb")) {
+            return "INSERT IGNORE INTO exception_records (" + COLUMNS + ") VALUES (" + placeholders + ")";
+        }
+        // H2 ve SQL standardı MERGE destekleyenler
+        return "MERGE INTO exception_records t USING (VALUES (" + placeholders + ")) s (" + COLUMNS + ") "
+            + "ON t.id = s.id WHEN NOT MATCHED THEN INSERT (" + COLUMNS + ") VALUES (s."
+            + COLUMNS.replace(", ", ", s.") + ")";
+    }
+    
+    // @PrePersist'teki varsayılanlar burada da uygulanır
+    private static void bind(PreparedStatement ps, ExceptionRecord record, LocalDateTime now) throws SQLException {
+        int i = 1;
+        ps.setString(i++, record.getId());
+        ps.setString(i++, record.getExceptionType());
+        ps.setString(i++, record.getMessage());
+        ps.setString(i++, record.getStackTrace());
+        ps.setString(i++, record.getFrames());
+        setTimestamp(ps, i++, record.getTimestamp());
+        ps.setString(i++, record.getProjectName());
+        ps.setString(i++, record.getComponentName());
+        ps.setString(i++, record.getPodName());
+        ps.setString(i++, record.getPodIp());
+        ps.setString(i++, record.getClusterName());
+        ps.setString(i++, record.getEnvironment());
+        ps.setString(i++, record.getServiceName());
+        ps.setString(i++, record.getMethod());
+        ps.setString(i++, record.getUrl());
+        ps.setString(i++, record.getUserAgent());
+        ps.setString(i++, record.getSessionId());
+        ps.setString(i++, record.getAdditionalData());
+        ps.setString(i++, record.getFingerprint());
+        Long occurrenceCount = record.getOccurrenceCount();
+        ps.setLong(i++, occurrenceCount != null && occurrenceCount > 0 ? occurrenceCount : 1L);
+        if (record.getSampledOutCount() != null) {
+            ps.setLong(i++, record.getSampledOutCount());
+        } else {
+            ps.setNull(i++, Types.BIGINT);
+        }
+        setTimestamp(ps, i++, record.getFirstSeen());
+        setTimestamp(ps, i++, record.getLastSeen());
+        ps.setString(i++, record.getSamples());
+        setTimestamp(ps, i, record.getCreatedAt() != null ? record.getCreatedAt() : now);
+    }
+    
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value != null) {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        } else {
+            ps.setNull(index, Types.TIMESTAMP);
+        }
+    }
+}
@@ -5,8 +5,10 @@ import com.example.exception.monitor.repository.ExceptionRecordRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,6 +26,30 @@ public class ExceptionRecordService {
         return repository.save(record);
     }
     
+    public List<ExceptionRecord> saveAll(List<ExceptionRecord> records) {
+        log.debug("Saving {} exception records", records.size());
+        return repository.saveAll(records);
+    }
+    
+    // Ingest yolu: tek transaction, tek JDBC batch; merge'ün id SELECT'i yok, tekrar gelen id'ler atlanır
+    @Transactional
+    public int insertAll(List<ExceptionRecord> records) {
+        log.debug("Inserting {} exception records", records.size());
+        return repository.insertIgnoringDuplicates(records);
+    }
+    
+    // before: önceki sayfanın son id'si, null ise en yeniden başlar. Sıra id'nin türüne bağlı değil (timestamp, id);
+    // bilinmeyen bir cursor boş sayfa döner
+    public List<ExceptionRecord> findBefore(String before, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        if (before == null || before.isBlank()) {
+            return repository.findAllByOrderByTimestampDescIdDesc(pageable);
+        }
+        return repository.findById(before)
+            .map(cursor -> repository.findPageBefore(cursor.getTimestamp(), cursor.getId(), pageable))
+            .orElse(List.of());
+    }
+    
     public Page<ExceptionRecord> findAll(Pageable pageable) {
         return repository.findAllByOrderByTimestampDesc(pageable);
     }
@@ -76,7 +102,7 @@ public class ExceptionRecordService {
     }
     
     public Long getTotalExceptions() {
-        return repository.count();
+        return repository.countOccurrences();
     }
     
     public Long getExceptionsInLast24Hours() {
@@ -139,7 +165,7 @@ public class ExceptionRecordService {
         if (startDate == null || endDate == null) {
             return 0L;
         }
-        return repository.countByTimestampBetween(startDate, endDate);
+        return repository.countOccurrencesBetween(startDate, endDate);
     }
     
     // Filtered search with service, method and request headers
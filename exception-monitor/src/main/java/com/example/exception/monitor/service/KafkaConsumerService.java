@@ -1,84 +1,211 @@
 package com.example.exception.monitor.service;
 
 import com.example.exception.monitor.entity.ExceptionRecord;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.example.exception.monitor.util.ExceptionRecordDecoder;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
-public class KafkaConsumerService {
+public class KafkaConsumerService implements DisposableBean {
+    
+    // Library'deki ExceptionHeaders ile aynı olmalı
+    private static final String FORMAT_HEADER = "exception-format";
+    private static final String SCHEMA_VERSION_HEADER = "exception-schema-version";
+    private static final String ENVELOPE_HEADER = "exception-envelope";
+    private static final String SMILE_FORMAT = "smile";
+    private static final int SUPPORTED_SCHEMA_VERSION = 1;
     
     private final ExceptionRecordService exceptionRecordService;
-    private final ObjectMapper objectMapper;
+    private final ExceptionRecordDecoder decoder;
+    
+    // Her listener thread'inin bir batch'i paralel decode edip yazdığı lane sayısı; 1 ise listener thread'inde işlenir
+    @Value("${monitor.kafka.workers:4}")
+    private int workers;
+    
+    // Lane pool'u listener thread'ine özel: bir partition'ın batch'i diğer listener'larla ya da HTTP ingest ile thread paylaşmaz
+    private final ThreadLocal<ExecutorService> lanePool = ThreadLocal.withInitial(this::newLanePool);
+    private final Queue<ExecutorService> lanePools = new ConcurrentLinkedQueue<>();
+    
+    public KafkaConsumerService(ExceptionRecordService exceptionRecordService, ObjectMapper objectMapper) {
+        this.exceptionRecordService = exceptionRecordService;
+        this.decoder = new ExceptionRecordDecoder(objectMapper.getFactory());
+    }
+    
+    @Override
+    public void destroy() {
+        for (ExecutorService pool : lanePools) {
+            pool.shutdown();
+        }
+    }
+    
+    private ExecutorService newLanePool() {
+        String prefix = Thread.currentThread().getName() + "-lane-";
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Listener thread'i durursa (stop, yeniden başlatma) boştaki lane thread'leri kendiliğinden kapanır
+        pool.allowCoreThreadTimeOut(true);
+        lanePools.add(pool);
+        return pool;
+    }
+    
+    // Bir poll'daki record'lar worker lane'lerinde yazılır, offset'ler ancak tüm transaction'lar commit olunca ack'lenir.
+    // DB hatasında exception fırlar, ack yapılmaz ve error handler batch'i tekrar dener.
+    // Broker'sız çalışırken (HTTP ya da in-process transport) monitor.kafka.enabled=false
+    @KafkaListener(topics = "exceptions", groupId = "exception-monitor-group", autoStartup = "${monitor.kafka.enabled:true}")
+    public void handleExceptionBatch(List<ConsumerRecord<String, byte[]>> messages, Acknowledgment acknowledgment) {
+        int lanes = Math.min(workers, messages.size());
+        int saved = lanes > 1 ? processParallel(messages, lanes, lanePool.get()) : process(messages);
+        log.info("Saved {} exception records from {} messages", saved, messages.size());
+        acknowledgment.acknowledge();
+    }
+    
+    // HTTP ingest: istek thread'inde tek transaction. İstekler zaten paralel gelir, Kafka lane'lerini kullanmaz
+    public void handleExceptionBatch(List<ConsumerRecord<String, byte[]>> messages) {
+        int saved = process(messages);
+        log.info("Saved {} exception records from {} messages", saved, messages.size());
+    }
+    
+    private int process(List<ConsumerRecord<String, byte[]>> messages) {
+        List<ExceptionRecord> records = new ArrayList<>(messages.size());
+        for (ConsumerRecord<String, byte[]> message : messages) {
+            decode(message, records);
+        }
+        save(records);
+        return records.size();
+    }
+    
+    // Her lane kendi transaction'ında yazılır. Aynı key'li (id ya da fingerprint) record'lar aynı lane'e düşer,
+    // tekrar gelen bir event paralel transaction'larda çakışmaz.
+    // Bir lane başarısız olursa batch'te ilk etkilenen record'a kadar commit edilir, kalanı tekrar denenir
+    private int processParallel(List<ConsumerRecord<String, byte[]>> messages, int lanes, ExecutorService pool) {
+        int[] laneOf = new int[messages.size()];
+        List<List<ConsumerRecord<String, byte[]>>> laneMessages = new ArrayList<>(lanes);
+        for (int lane = 0; lane < lanes; lane++) {
+            laneMessages.add(new ArrayList<>(messages.size() / lanes + 1));
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            ConsumerRecord<String, byte[]> message = messages.get(i);
+            int hash = message.key() != null ? message.key().hashCode() : Long.hashCode(message.offset());
+            laneOf[i] = Math.floorMod(hash, lanes);
+            laneMessages.get(laneOf[i]).add(message);
+        }
+        
+        List<Future<Integer>> results = new ArrayList<>(lanes);
+        for (List<ConsumerRecord<String, byte[]>> lane : laneMessages) {
+            results.add(lane.isEmpty() ? CompletableFuture.completedFuture(0) : pool.submit(() -> process(lane)));
+        }
+        
+        int saved = 0;
+        Throwable[] failures = new Throwable[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            try {
+                saved += results.get(lane).get();
+            } catch (ExecutionException e) {
+                failures[lane] = e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures[lane] = e;
+            }
+        }
+        for (int i = 0; i < laneOf.length; i++) {
+            Throwable failure = failures[laneOf[i]];
+            if (failure != null) {
+                throw new BatchListenerFailedException("Exception ingest failed at batch index " + i, failure, i);
+            }
+        }
+        return saved;
+    }
+    
+    // Tek record giriş noktası: in-process transport
+    public void handleExceptionMessage(ConsumerRecord<String, byte[]> message) {
+        List<ExceptionRecord> records = new ArrayList<>(1);
+        decode(message, records);
+        save(records);
+    }
     
-    @KafkaListener(topics = "exceptions", groupId = "exception-monitor-group")
-    public void handleExceptionMessage(String message) {
+    // Bozuk bir record batch'in geri kalanını etkilemez, loglanıp atlanır
+    private void decode(ConsumerRecord<String, byte[]> message, List<ExceptionRecord> records) {
         try {
-            log.info("Received exception message: {}", message);
+            String format = headerValue(message, FORMAT_HEADER);
+            log.debug("Received exception message: key={}, format={}, {} bytes",
+                message.key(), format != null ? format : "json", message.value() != null ? message.value().length : 0);
             
-            JsonNode jsonNode = objectMapper.readTree(message);
-            ExceptionRecord record = mapToExceptionRecord(jsonNode);
+            checkSchemaVersion(message);
             
-            exceptionRecordService.save(record);
-            log.info("Exception record saved with ID: {}", record.getId());
+            // Header'ı olmayan eski producer'lar düz JSON gönderir.
+            // Zarf: tek record içinde birden fazla event
+            decoder.decode(message.value(), SMILE_FORMAT.equals(format), headerValue(message, ENVELOPE_HEADER) != null, records);
             
         } catch (Exception e) {
-            log.error("Error processing exception message: {}", message, e);
+            log.error("Error processing exception message: key={}, offset={}", message.key(), message.offset(), e);
         }
     }
     
-    private ExceptionRecord mapToExceptionRecord(JsonNode jsonNode) {
-        ExceptionRecord record = new ExceptionRecord();
-        
-        record.setId(getStringValue(jsonNode, "id"));
-        record.setExceptionType(getStringValue(jsonNode, "exceptionType"));
-        record.setMessage(getStringValue(jsonNode, "message"));
-        record.setStackTrace(getStringValue(jsonNode, "stackTrace"));
-        
-        // Timestamp parsing
-        String timestampStr = getStringValue(jsonNode, "timestamp");
-        if (timestampStr != null) {
-            try {
-                record.setTimestamp(LocalDateTime.parse(timestampStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            } catch (Exception e) {
-                log.warn("Failed to parse timestamp: {}", timestampStr);
-                record.setTimestamp(LocalDateTime.now());
+    private void save(List<ExceptionRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            exceptionRecordService.insertAll(records);
+        } catch (DataIntegrityViolationException e) {
+            // Batch'i bozan record bulunsun diye tek tek tekrar denenir (tekrar gelen id'ler zaten hata vermez).
+            // Bağlantı vb. diğer hatalar çağırana fırlar, batch ack'lenmez
+            log.warn("Batch save of {} exception records failed, retrying one by one: {}", records.size(), e.getMessage());
+            for (ExceptionRecord record : records) {
+                try {
+                    exceptionRecordService.insertAll(List.of(record));
+                } catch (DataIntegrityViolationException recordError) {
+                    log.error("Dropping invalid exception record: {}", record.getId(), recordError);
+                }
             }
-        } else {
-            record.setTimestamp(LocalDateTime.now());
         }
-        
-        record.setProjectName(getStringValue(jsonNode, "projectName"));
-        record.setComponentName(getStringValue(jsonNode, "componentName"));
-        record.setPodName(getStringValue(jsonNode, "podName"));
-        record.setPodIp(getStringValue(jsonNode, "podIp"));
-        record.setClusterName(getStringValue(jsonNode, "clusterName"));
-        record.setEnvironment(getStringValue(jsonNode, "environment"));
-        record.setServiceName(getStringValue(jsonNode, "serviceName"));
-        record.setMethod(getStringValue(jsonNode, "method"));
-        record.setUrl(getStringValue(jsonNode, "url"));
-        record.setUserAgent(getStringValue(jsonNode, "userAgent"));
-        record.setSessionId(getStringValue(jsonNode, "sessionId"));
-        
-        // Additional data as JSON string
-        JsonNode additionalDataNode = jsonNode.get("additionalData");
-        if (additionalDataNode != null && !additionalDataNode.isNull()) {
-            record.setAdditionalData(additionalDataNode.toString());
+    }
+    
+    private void checkSchemaVersion(ConsumerRecord<String, byte[]> message) {
+        String version = headerValue(message, SCHEMA_VERSION_HEADER);
+        if (version == null) {
+            return;
+        }
+        try {
+            if (Integer.parseInt(version) > SUPPORTED_SCHEMA_VERSION) {
+                log.warn("Exception message schema version {} is newer than supported {}, decoding known fields only",
+                    version, SUPPORTED_SCHEMA_VERSION);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid schema version header: {}", version);
         }
-        
-        return record;
     }
     
-    private String getStringValue(JsonNode jsonNode, String fieldName) {
-        JsonNode node = jsonNode.get(fieldName);
-        return (node != null && !node.isNull()) ? node.asText() : null;
+    private String headerValue(ConsumerRecord<String, byte[]> message, String name) {
+        Header header = message.headers().lastHeader(name);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,284 @@
+package com.example.exception.monitor.util;
+
+import com.example.exception.monitor.entity.ExceptionRecord;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Decodes exception events straight from a JsonParser into ExceptionRecords in one pass,
+ * without building a JsonNode tree. In JSON payloads the frames, samples and additionalData
+ * sub-documents are copied as raw bytes; Smile payloads are transcoded to JSON text.
+ */
+@Slf4j
+public class ExceptionRecordDecoder {
+    
+    // "yyyy-MM-ddTHH:mm:ss"
+    private static final int SECOND_PREFIX_LENGTH = 19;
+    
+    private final JsonFactory jsonFactory;
+    private final SmileFactory smileFactory = new SmileFactory();
+    
+    // Bir batch'teki event'lerin çoğu aynı saniyede; son parse edilen saniye tekrar kullanılır
+    private volatile CachedSecond lastSecond;
+    
+    public ExceptionRecordDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+    
+    public void decode(byte[] payload, boolean smile, boolean envelope, List<ExceptionRecord> records) throws IOException {
+        // Smile'da byte offset'leri JSON metni değil, ham kopya yapılamaz
+        byte[] source = smile ? null : payload;
+        try (JsonParser parser = smile ? smileFactory.createParser(payload) : jsonFactory.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Exception message is not a JSON object");
+            }
+            if (!envelope) {
+                records.add(decodeEvent(parser, source));
+                return;
+            }
+            // Zarf: {"events":[...]}; diğer alanlar atlanır
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("events".equals(field) && token == JsonToken.START_ARRAY) {
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                        if (token == JsonToken.START_OBJECT) {
+                            records.add(decodeEvent(parser, source));
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+    
+    private ExceptionRecord decodeEvent(JsonParser parser, byte[] source) throws IOException {
+        ExceptionRecord record = new ExceptionRecord();
+        String timestamp = null;
+        String firstSeen = null;
+        String lastSeen = null;
+        
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "id":
+                    record.setId(text(parser));
+                    break;
+                case "exceptionType":
+                    record.setExceptionType(text(parser));
+                    break;
+                case "message":
+                    record.setMessage(text(parser));
+                    break;
+                case "stackTrace":
+                    record.setStackTrace(text(parser));
+                    break;
+                case "frames":
+                    if (token == JsonToken.START_ARRAY) {
+                        record.setFrames(rawValue(parser, source));
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                case "timestamp":
+                    timestamp = text(parser);
+                    break;
+                case "projectName":
+                    record.setProjectName(text(parser));
+                    break;
+                case "componentName":
+                    record.setComponentName(text(parser));
+                    break;
+                case "podName":
+                    record.setPodName(text(parser));
+                    break;
+                case "podIp":
+                    record.setPodIp(text(parser));
+                    break;
+                case "clusterName":
+                    record.setClusterName(text(parser));
+                    break;
+                case "environment":
+                    record.setEnvironment(text(parser));
+                    break;
+                case "serviceName":
+                    record.setServiceName(text(parser));
+                    break;
+                case "method":
+                    record.setMethod(text(parser));
+                    break;
+                case "url":
+                    record.setUrl(text(parser));
+                    break;
+                case "userAgent":
+                    record.setUserAgent(text(parser));
+                    break;
+                case "sessionId":
+                    record.setSessionId(text(parser));
+                    break;
+                case "fingerprint":
+                    record.setFingerprint(text(parser));
+                    break;
+                case "occurrenceCount":
+                    record.setOccurrenceCount(Math.max(1L, longValue(parser, 1L)));
+                    break;
+                case "sampledOutCount":
+                    long sampledOut = longValue(parser, 0L);
+                    if (sampledOut > 0) {
+                        record.setSampledOutCount(sampledOut);
+                    }
+                    break;
+                case "firstSeen":
+                    firstSeen = text(parser);
+                    break;
+                case "lastSeen":
+                    lastSeen = text(parser);
+                    break;
+                case "samples":
+                    record.setSamples(token != JsonToken.VALUE_NULL ? rawValue(parser, source) : null);
+                    break;
+                case "additionalData":
+                    record.setAdditionalData(token != JsonToken.VALUE_NULL ? rawValue(parser, source) : null);
+                    break;
+                default:
+                    // Yeni şema sürümlerindeki bilinmeyen alanlar
+                    parser.skipChildren();
+            }
+        }
+        
+        LocalDateTime parsedTimestamp = timestamp != null ? parseTimestamp(timestamp) : null;
+        record.setTimestamp(parsedTimestamp != null ? parsedTimestamp : LocalDateTime.now());
+        record.setFirstSeen(firstSeen != null ? parseTimestamp(firstSeen) : null);
+        record.setLastSeen(lastSeen != null ? parseTimestamp(lastSeen) : null);
+        return record;
+    }
+    
+    private static String text(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return token != JsonToken.VALUE_NULL ? parser.getText() : null;
+    }
+    
+    private static long longValue(JsonParser parser, long defaultValue) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+            return parser.getLongValue();
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            double value = parser.getDoubleValue();
+            return value >= Long.MIN_VALUE && value <= Long.MAX_VALUE ? (long) value : defaultValue;
+        }
+        parser.skipChildren();
+        return defaultValue;
+    }
+    
+    // JSON'da alt doküman parse edilmeden byte'larıyla kopyalanır; Smile ya da skaler değerler JSON'a yazılır
+    private String rawValue(JsonParser parser, byte[] source) throws IOException {
+        if (source != null && parser.currentToken().isStructStart()) {
+            int start = (int) parser.currentTokenLocation().getByteOffset();
+            parser.skipChildren();
+            int end = (int) parser.currentLocation().getByteOffset();
+            return new String(source, start, end - start, StandardCharsets.UTF_8);
+        }
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return writer.toString();
+    }
+    
+    // ISO_LOCAL_DATE_TIME; "yyyy-MM-ddTHH:mm:ss[.SSSSSSSSS]" dışındaki biçimler formatter'a düşer
+    private LocalDateTime parseTimestamp(String value) {
+        try {
+            int nanos = fraction(value);
+            if (nanos < 0) {
+                return LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            }
+            CachedSecond cached = lastSecond;
+            if (cached == null || !value.regionMatches(0, cached.prefix, 0, SECOND_PREFIX_LENGTH)) {
+                cached = new CachedSecond(value.substring(0, SECOND_PREFIX_LENGTH), LocalDateTime.of(
+                    digits(value, 0, 4), digits(value, 5, 7), digits(value, 8, 10),
+                    digits(value, 11, 13), digits(value, 14, 16), digits(value, 17, 19)));
+                lastSecond = cached;
+            }
+            return nanos == 0 ? cached.value : cached.value.withNano(nanos);
+        } catch (DateTimeException e) {
+            log.warn("Failed to parse timestamp: {}", value);
+            return null;
+        }
+    }
+    
+    // Saniye kesri nanosaniye olarak; sabit biçime uymuyorsa -1
+    private static int fraction(String value) {
+        int length = value.length();
+        if (length < SECOND_PREFIX_LENGTH || value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != 'T'
+            || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            return -1;
+        }
+        for (int i = 0; i < SECOND_PREFIX_LENGTH; i++) {
+            if ((i == 4 || i == 7 || i == 10 || i == 13 || i == 16) != !isDigit(value.charAt(i))) {
+                return -1;
+            }
+        }
+        if (length == SECOND_PREFIX_LENGTH) {
+            return 0;
+        }
+        if (value.charAt(SECOND_PREFIX_LENGTH) != '.' || length == SECOND_PREFIX_LENGTH + 1 || length > SECOND_PREFIX_LENGTH + 10) {
+            return -1;
+        }
+        int nanos = 0;
+        for (int i = SECOND_PREFIX_LENGTH + 1; i < SECOND_PREFIX_LENGTH + 10; i++) {
+            if (i < length) {
+                char c = value.charAt(i);
+                if (!isDigit(c)) {
+                    return -1;
+                }
+                nanos = nanos * 10 + (c - '0');
+            } else {
+                nanos *= 10;
+            }
+        }
+        return nanos;
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    private static int digits(String value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            result = result * 10 + (value.charAt(i) - '0');
+        }
+        return result;
+    }
+    
+    private static final class CachedSecond {
+        private final String prefix;
+        private final LocalDateTime value;
+        
+        private CachedSecond(String prefix, LocalDateTime value) {
+            this.prefix = prefix;
+            this.value = value;
+        }
+    }
+}
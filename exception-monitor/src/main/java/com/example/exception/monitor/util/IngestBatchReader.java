@@ -0,0 +1,67 @@
+package com.example.exception.monitor.util;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decodes the batch body posted by the library's HTTP transport into ConsumerRecords, so
+ * HTTP-delivered events go through the same ingest path as Kafka records. Frame layout
+ * must match the library's HttpExceptionTransport.
+ */
+public final class IngestBatchReader {
+    
+    public static final String CONTENT_TYPE = "application/vnd.exception-batch";
+    
+    private IngestBatchReader() {
+    }
+    
+    public static List<ConsumerRecord<String, byte[]>> read(String topic, byte[] body) throws IOException {
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        long timestamp = System.currentTimeMillis();
+        while (in.available() > 0) {
+            byte[] keyBytes = readBytes(in);
+            String key = keyBytes != null ? new String(keyBytes, StandardCharsets.UTF_8) : null;
+            
+            RecordHeaders headers = new RecordHeaders();
+            int headerCount = in.readUnsignedShort();
+            for (int i = 0; i < headerCount; i++) {
+                byte[] name = new byte[in.readUnsignedShort()];
+                in.readFully(name);
+                headers.add(new String(name, StandardCharsets.UTF_8), readBytes(in));
+            }
+            
+            byte[] payload = readBytes(in);
+            if (payload == null) {
+                throw new IOException("Frame without payload");
+            }
+            records.add(new ConsumerRecord<>(topic, -1, -1L, timestamp, TimestampType.CREATE_TIME,
+                keyBytes != null ? keyBytes.length : -1, payload.length, key, payload, headers, Optional.empty()));
+        }
+        return records;
+    }
+    
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        // Bozuk uzunluk yüzünden büyük dizi ayrılmasın
+        if (length > in.available()) {
+            throw new EOFException("Frame length " + length + " exceeds remaining body");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.exception.monitor.service;
+
+import com.example.exception.monitor.entity.ExceptionRecord;
+import com.example.exception.monitor.util.QueryParser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({ExceptionRecordService.class, QueryParser.class})
+class ExceptionRecordServiceTest {
+    
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+    
+    @Autowired
+    private ExceptionRecordService service;
+    
+    private static ExceptionRecord record(String id, int minute) {
+        ExceptionRecord record = new ExceptionRecord();
+        record.setId(id);
+        record.setExceptionType("IllegalStateException");
+        record.setTimestamp(BASE.plusMinutes(minute));
+        record.setOccurrenceCount(1L);
+        return record;
+    }
+    
+    private List<String> allPages(int pageSize) {
+        List<String> ids = new ArrayList<>();
+        String before = null;
+        while (true) {
+            List<ExceptionRecord> page = service.findBefore(before, pageSize);
+            page.forEach(record -> ids.add(record.getId()));
+            if (page.size() < pageSize) {
+                return ids;
+            }
+            before = page.get(page.size() - 1).getId();
+        }
+    }
+    
+    @Test
+    void pagesByTimestampWhateverTheIdScheme() {
+        // UUIDv7 ("019...") ve random UUID'ler karışık; random olanlar id sırasında hep en üstte olurdu
+        service.insertAll(List.of(
+            record("0190a000-0000-7000-8000-000000000001", 1),
+            record("f47ac10b-58cc-4372-a567-0e02b2c3d479", 2),
+            record("0190a000-0000-7000-8000-000000000003", 3),
+            record("3b241101-e2bb-4255-8caf-4136c566a962", 4),
+            record("0190a000-0000-7000-8000-000000000005", 5)));
+        
+        assertEquals(List.of(
+            "0190a000-0000-7000-8000-000000000005",
+            "3b241101-e2bb-4255-8caf-4136c566a962",
+            "0190a000-0000-7000-8000-000000000003",
+            "f47ac10b-58cc-4372-a567-0e02b2c3d479",
+            "0190a000-0000-7000-8000-000000000001"), allPages(2));
+    }
+    
+    @Test
+    void sameTimestampIsOrderedByIdWithoutGapsOrRepeats() {
+        List<ExceptionRecord> records = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            records.add(record("id-" + i, 0));
+        }
+        records.add(record("later", 1));
+        service.insertAll(records);
+        
+        List<String> ids = allPages(3);
+        
+        assertEquals("later", ids.get(0));
+        assertEquals(List.of("id-6", "id-5", "id-4", "id-3", "id-2", "id-1", "id-0"), ids.subList(1, ids.size()));
+        assertEquals(ids.size(), ids.stream().distinct().collect(Collectors.toList()).size());
+    }
+    
+    @Test
+    void unknownCursorReturnsEmptyPage() {
+        service.insertAll(List.of(record("a", 0)));
+        
+        assertTrue(service.findBefore("missing", 10).isEmpty());
+    }
+}
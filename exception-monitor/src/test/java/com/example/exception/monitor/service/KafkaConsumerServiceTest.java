@@ -0,0 +1,127 @@
+package com.example.exception.monitor.service;
+
+import com.example.exception.monitor.entity.ExceptionRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class KafkaConsumerServiceTest {
+    
+    private final ExceptionRecordService recordService = mock(ExceptionRecordService.class);
+    private final List<String> savedIds = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> laneThreads = ConcurrentHashMap.newKeySet();
+    private final Acknowledgment acknowledgment = mock(Acknowledgment.class);
+    private KafkaConsumerService service;
+    
+    private KafkaConsumerService service(int workers) {
+        when(recordService.insertAll(anyList())).thenAnswer(invocation -> {
+            List<ExceptionRecord> records = invocation.getArgument(0);
+            List<String> ids = records.stream().map(ExceptionRecord::getId).collect(Collectors.toList());
+            laneThreads.add(Thread.currentThread().getName());
+            if (ids.contains("bad")) {
+                throw new IllegalStateException("database unavailable");
+            }
+            savedIds.addAll(ids);
+            return records.size();
+        });
+        service = new KafkaConsumerService(recordService, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "workers", workers);
+        return service;
+    }
+    
+    @AfterEach
+    void shutdown() {
+        service.destroy();
+    }
+    
+    private static ConsumerRecord<String, byte[]> message(long offset, String key, String id) {
+        byte[] payload = ("{\"id\":\"" + id + "\",\"exceptionType\":\"IllegalStateException\"}").getBytes(StandardCharsets.UTF_8);
+        return new ConsumerRecord<>("exceptions", 0, offset, key, payload);
+    }
+    
+    @Test
+    void savesEveryLane() {
+        List<ConsumerRecord<String, byte[]>> messages = List.of(
+            message(0, "a", "1"), message(1, "b", "2"), message(2, "c", "3"), message(3, "d", "4"), message(4, "a", "5"));
+        
+        service(4).handleExceptionBatch(messages, acknowledgment);
+        
+        assertEquals(List.of("1", "2", "3", "4", "5"), savedIds.stream().sorted().collect(Collectors.toList()));
+        assertTrue(laneThreads.stream().allMatch(name -> name.startsWith(Thread.currentThread().getName() + "-lane-")));
+        verify(acknowledgment).acknowledge();
+    }
+    
+    @Test
+    void eachListenerThreadHasItsOwnLanes() throws Exception {
+        KafkaConsumerService service = service(4);
+        List<ConsumerRecord<String, byte[]>> messages = List.of(
+            message(0, "a", "1"), message(1, "b", "2"), message(2, "c", "3"), message(3, "d", "4"));
+        
+        for (String listener : List.of("listener-0", "listener-1")) {
+            Thread thread = new Thread(() -> service.handleExceptionBatch(messages, acknowledgment), listener);
+            thread.start();
+            thread.join();
+        }
+        
+        assertEquals(8, laneThreads.size());
+        assertEquals(4, laneThreads.stream().filter(name -> name.startsWith("listener-0-lane-")).count());
+        assertEquals(4, laneThreads.stream().filter(name -> name.startsWith("listener-1-lane-")).count());
+    }
+    
+    @Test
+    void httpIngestWritesOnTheRequestThread() {
+        List<ConsumerRecord<String, byte[]>> messages = List.of(
+            message(0, "a", "1"), message(1, "b", "2"), message(2, "c", "3"), message(3, "d", "4"));
+        
+        service(4).handleExceptionBatch(messages);
+        
+        assertEquals(Set.of(Thread.currentThread().getName()), laneThreads);
+        assertEquals(4, savedIds.size());
+    }
+    
+    @Test
+    void failsAtFirstIndexOfTheFailedLane() {
+        // "a".."d" hash'leri 97..100: 4 lane'de her biri ayrı lane'e düşer, "c" lane'i index 2 ve 4'ü içerir
+        List<ConsumerRecord<String, byte[]>> messages = List.of(
+            message(0, "a", "1"), message(1, "b", "2"), message(2, "c", "3"), message(3, "d", "4"), message(4, "c", "bad"));
+        
+        BatchListenerFailedException e = assertThrows(BatchListenerFailedException.class,
+            () -> service(4).handleExceptionBatch(messages, acknowledgment));
+        
+        assertEquals(2, e.getIndex());
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        // Diğer lane'ler kendi transaction'larında commit olur
+        assertEquals(List.of("1", "2", "4"), savedIds.stream().sorted().collect(Collectors.toList()));
+        verifyNoInteractions(acknowledgment);
+    }
+    
+    @Test
+    void singleWorkerProcessesOnTheCallingThread() {
+        List<ConsumerRecord<String, byte[]>> messages = List.of(message(0, "a", "1"), message(1, "c", "bad"));
+        
+        // Lane yok: hata doğrudan çağırana fırlar, batch bütün olarak tekrar denenir
+        assertThrows(IllegalStateException.class, () -> service(1).handleExceptionBatch(messages, acknowledgment));
+        assertTrue(savedIds.isEmpty());
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.exception.monitor.util;
+
+import com.example.exception.monitor.entity.ExceptionRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExceptionRecordDecoderTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExceptionRecordDecoder decoder = new ExceptionRecordDecoder(objectMapper.getFactory());
+    
+    private ExceptionRecord decodeOne(byte[] payload, boolean smile) throws IOException {
+        List<ExceptionRecord> records = new ArrayList<>();
+        decoder.decode(payload, smile, false, records);
+        assertEquals(1, records.size());
+        return records.get(0);
+    }
+    
+    private static byte[] utf8(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static Map<String, Object> event() {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", "evt-1");
+        event.put("exceptionType", "IllegalStateException");
+        event.put("message", "héllo \"q\" ✓");
+        event.put("frames", List.of(Map.of("causeIndex", 0, "className", "com.example.Service", "lineNumber", 42)));
+        event.put("timestamp", "2024-02-29T23:59:58.5");
+        event.put("fingerprint", "abc123");
+        event.put("occurrenceCount", 3);
+        event.put("additionalData", Map.of("nested", Map.of("x", List.of(1, "ü")), "s", "t\"\n"));
+        return event;
+    }
+    
+    @Test
+    void copiesJsonSubDocumentsAsRawBytes() throws IOException {
+        String json = "{\"id\":\"x\",\"frames\":[ {\"className\" : \"A\"} ],\"samples\":[{\"m\":\"é\"}],"
+            + "\"additionalData\":{\"k\":\"v\",\"n\":[1, 2]},\"message\":\"m\"}";
+        
+        ExceptionRecord record = decodeOne(utf8(json), false);
+        
+        // Whitespace dahil kaynak metin aynen korunur
+        assertEquals("[ {\"className\" : \"A\"} ]", record.getFrames());
+        assertEquals("[{\"m\":\"é\"}]", record.getSamples());
+        assertEquals("{\"k\":\"v\",\"n\":[1, 2]}", record.getAdditionalData());
+        assertEquals("m", record.getMessage());
+    }
+    
+    @Test
+    void decodesSmileLikeJson() throws IOException {
+        Map<String, Object> event = event();
+        
+        ExceptionRecord fromJson = decodeOne(objectMapper.writeValueAsBytes(event), false);
+        ExceptionRecord fromSmile = decodeOne(new ObjectMapper(new SmileFactory()).writeValueAsBytes(event), true);
+        
+        for (ExceptionRecord record : List.of(fromJson, fromSmile)) {
+            assertEquals("evt-1", record.getId());
+            assertEquals("héllo \"q\" ✓", record.getMessage());
+            assertEquals("abc123", record.getFingerprint());
+            assertEquals(3L, record.getOccurrenceCount());
+            assertEquals(LocalDateTime.of(2024, 2, 29, 23, 59, 58, 500_000_000), record.getTimestamp());
+            assertEquals(objectMapper.valueToTree(event.get("frames")), objectMapper.readTree(record.getFrames()));
+            assertEquals(objectMapper.valueToTree(event.get("additionalData")), objectMapper.readTree(record.getAdditionalData()));
+        }
+    }
+    
+    @Test
+    void ignoresUnknownFieldsAndWrongTypes() throws IOException {
+        String json = "{\"id\":\"x\",\"unknown\":{\"a\":[1,{\"b\":2}]},\"frames\":\"no\",\"message\":12,"
+            + "\"occurrenceCount\":0,\"sampledOutCount\":0,\"additionalData\":null,\"stackTrace\":{\"x\":1}}";
+        
+        ExceptionRecord record = decodeOne(utf8(json), false);
+        
+        assertEquals("x", record.getId());
+        assertNull(record.getFrames());
+        assertEquals("12", record.getMessage());
+        assertEquals(1L, record.getOccurrenceCount());
+        assertNull(record.getSampledOutCount());
+        assertNull(record.getAdditionalData());
+        assertNull(record.getStackTrace());
+    }
+    
+    @Test
+    void parsesTimestampsAndFallsBack() throws IOException {
+        ExceptionRecord record = decodeOne(utf8("{\"timestamp\":\"2024-02-29T23:59:58\",\"firstSeen\":\"2024-02-29T23:59\",\"lastSeen\":\"bad\"}"), false);
+        assertEquals(LocalDateTime.of(2024, 2, 29, 23, 59, 58), record.getTimestamp());
+        // Sabit biçime uymayan ISO değerleri formatter'a düşer
+        assertEquals(LocalDateTime.of(2024, 2, 29, 23, 59), record.getFirstSeen());
+        assertNull(record.getLastSeen());
+        
+        // Aynı saniye, farklı kesir: cache'lenen saniye kullanılır
+        record = decodeOne(utf8("{\"timestamp\":\"2024-02-29T23:59:58.123456789\"}"), false);
+        assertEquals(LocalDateTime.of(2024, 2, 29, 23, 59, 58, 123_456_789), record.getTimestamp());
+        
+        // Geçersiz tarih ya da eksik alan: alınma zamanı
+        LocalDateTime before = LocalDateTime.now();
+        record = decodeOne(utf8("{\"timestamp\":\"2024-02-30T00:00:00\"}"), false);
+        assertTrue(!record.getTimestamp().isBefore(before));
+        record = decodeOne(utf8("{\"id\":\"no-timestamp\"}"), false);
+        assertTrue(!record.getTimestamp().isBefore(before));
+    }
+    
+    @Test
+    void decodesEnvelopes() throws IOException {
+        String json = "{\"v\":1,\"events\":[{\"id\":\"a\",\"additionalData\":{\"k\":\"v\"}},5,{\"id\":\"b\"}],\"x\":[]}";
+        List<ExceptionRecord> records = new ArrayList<>();
+        
+        decoder.decode(utf8(json), false, true, records);
+        
+        assertEquals(2, records.size());
+        assertEquals("a", records.get(0).getId());
+        assertEquals("{\"k\":\"v\"}", records.get(0).getAdditionalData());
+        assertEquals("b", records.get(1).getId());
+    }
+    
+    @Test
+    void rejectsPayloadsThatAreNotObjects() {
+        assertThrows(IOException.class, () -> decoder.decode(new byte[0], false, false, new ArrayList<>()));
+        assertThrows(IOException.class, () -> decoder.decode(utf8("[1]"), false, false, new ArrayList<>()));
+    }
+}
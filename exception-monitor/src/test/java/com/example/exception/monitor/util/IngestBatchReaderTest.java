@@ -0,0 +1,102 @@
+package com.example.exception.monitor.util;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IngestBatchReaderTest {
+    
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(body);
+    
+    // HttpExceptionTransport ile aynı düzen: key, header'lar, payload
+    private void frame(String key, String[][] headers, byte[] payload) throws IOException {
+        writeBytes(key != null ? utf8(key) : null);
+        out.writeShort(headers.length);
+        for (String[] header : headers) {
+            byte[] name = utf8(header[0]);
+            out.writeShort(name.length);
+            out.write(name);
+            writeBytes(header[1] != null ? utf8(header[1]) : null);
+        }
+        writeBytes(payload);
+    }
+    
+    private void writeBytes(byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Test
+    void readsFramesInOrder() throws IOException {
+        frame("key-ü", new String[][] {{"exception-format", "smile"}, {"exception-envelope", null}}, utf8("{\"id\":\"1\"}"));
+        frame(null, new String[0][], new byte[0]);
+        
+        List<ConsumerRecord<String, byte[]>> records = IngestBatchReader.read("exceptions", body.toByteArray());
+        
+        assertEquals(2, records.size());
+        ConsumerRecord<String, byte[]> first = records.get(0);
+        assertEquals("exceptions", first.topic());
+        assertEquals("key-ü", first.key());
+        assertArrayEquals(utf8("{\"id\":\"1\"}"), first.value());
+        assertArrayEquals(utf8("smile"), first.headers().lastHeader("exception-format").value());
+        assertTrue(first.headers().lastHeader("exception-envelope") != null);
+        assertNull(first.headers().lastHeader("exception-envelope").value());
+        
+        ConsumerRecord<String, byte[]> second = records.get(1);
+        assertNull(second.key());
+        assertEquals(0, second.value().length);
+        assertEquals(-1, second.serializedKeySize());
+    }
+    
+    @Test
+    void emptyBodyHasNoRecords() throws IOException {
+        assertTrue(IngestBatchReader.read("exceptions", new byte[0]).isEmpty());
+    }
+    
+    @Test
+    void rejectsLengthBeyondTheBody() throws IOException {
+        out.writeInt(-1);
+        out.writeShort(0);
+        out.writeInt(Integer.MAX_VALUE);
+        out.write(1);
+        
+        assertThrows(EOFException.class, () -> IngestBatchReader.read("exceptions", body.toByteArray()));
+    }
+    
+    @Test
+    void rejectsTruncatedFrame() throws IOException {
+        frame("k", new String[0][], utf8("payload"));
+        byte[] truncated = Arrays.copyOf(body.toByteArray(), body.size() - 3);
+        
+        assertThrows(EOFException.class, () -> IngestBatchReader.read("exceptions", truncated));
+    }
+    
+    @Test
+    void rejectsFrameWithoutPayload() throws IOException {
+        frame("k", new String[0][], null);
+        
+        assertThrows(IOException.class, () -> IngestBatchReader.read("exceptions", body.toByteArray()));
+    }
+}